@@ -0,0 +1,31 @@
+package cz.cvut.fel.java;
+
+import cz.cvut.fel.java.logging.GameLog;
+
+import java.util.logging.Level;
+
+/**
+ * Prepares the game code for the benchmarks. The simulation does not need a GL context,
+ * so the benchmarks do not need a window.
+ *
+ * <p>The benchmarks read the game files with paths relative to the project directory and the sprites
+ * from the classpath, so they must run from the project directory with {@code src/main/resources}
+ * on the classpath.
+ */
+public final class Headless {
+    private static boolean initialized = false;
+
+    private Headless() {}
+
+    /**
+     * Keeps the game log quiet. Can be called repeatedly.
+     */
+    public static synchronized void init() {
+        if (initialized) {
+            return;
+        }
+        initialized = true;
+
+        GameLog.setLevel(Level.WARNING);
+    }
+}
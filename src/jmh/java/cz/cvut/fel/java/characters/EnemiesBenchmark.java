@@ -0,0 +1,126 @@
+package cz.cvut.fel.java.characters;
+
+import com.badlogic.gdx.math.Rectangle;
+import cz.cvut.fel.java.Headless;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One simulation step of the enemies of a room: moving one enemy, moving all enemies,
+ * the attacks on the player and the whole {@link Enemies#updateEnemies(Player, float)}.
+ *
+ * <p>The enemies walk towards the player, so after a while all of them would stand around the player.
+ * Every {@link #RESET_STEPS} steps they are placed back to their random spawn positions,
+ * the benchmarks therefore measure a mix of approaching and attacking enemies.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EnemiesBenchmark {
+    private static final float STEP = 1f / 60f;
+
+    /**
+     * Number of steps after which the enemies are placed back, 10 seconds of the game.
+     */
+    private static final int RESET_STEPS = 600;
+
+    private static final int PLAYER_HEALTH = 100;
+
+    @Param({"10", "100", "1000", "10000"})
+    public int enemyCount;
+
+    private Enemies enemies;
+    private Player player;
+    private float playerX;
+    private float playerY;
+
+    private String[] spawnTypes;
+    private float[] spawnX;
+    private float[] spawnY;
+    private int steps;
+
+    @Setup
+    public void setUp() {
+        Headless.init();
+
+        // The room grows with the number of enemies, so their density stays the same
+        float size = (float) Math.sqrt(enemyCount) * 100f;
+        enemies = new Enemies(new Rectangle(0, 0, size, size));
+        player = Player.getDefaultPlayer();
+        playerX = size / 2;
+        playerY = size / 2;
+        player.setPosition(playerX, playerY);
+
+        Random random = new Random(42);
+        spawnTypes = new String[enemyCount];
+        spawnX = new float[enemyCount];
+        spawnY = new float[enemyCount];
+        for (int i = 0; i < enemyCount; i++) {
+            spawnTypes[i] = random.nextBoolean() ? "orc" : "goblin";
+            spawnX[i] = random.nextFloat() * size;
+            spawnY[i] = random.nextFloat() * size;
+        }
+        reset();
+    }
+
+    private void reset() {
+        enemies.clear();
+        for (int i = 0; i < enemyCount; i++) {
+            enemies.spawn(spawnTypes[i], spawnX[i], spawnY[i]);
+        }
+        steps = 0;
+    }
+
+    private void nextStep() {
+        if (++steps == RESET_STEPS) {
+            reset();
+        }
+        // The player must survive, otherwise the attacks stop
+        player.restoreHealth(PLAYER_HEALTH);
+    }
+
+    @Benchmark
+    public float moveOneEnemy() {
+        enemies.moveEnemy(0, playerX, playerY, STEP);
+        nextStep();
+        return enemies.getX(0);
+    }
+
+    @Benchmark
+    public int moveEnemies() {
+        EnemyUpdateStage.update(enemies, playerX, playerY, STEP);
+        nextStep();
+        return enemies.size();
+    }
+
+    @Benchmark
+    public int attackPlayer() {
+        enemies.attackPlayerInRange(player, playerX, playerY);
+        int health = player.getHealth();
+        nextStep();
+        return health;
+    }
+
+    @Benchmark
+    public int updateEnemies() {
+        enemies.updateEnemies(player, STEP);
+        int health = player.getHealth();
+        nextStep();
+        return health;
+    }
+}
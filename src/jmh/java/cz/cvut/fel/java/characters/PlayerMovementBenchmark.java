@@ -0,0 +1,103 @@
+package cz.cvut.fel.java.characters;
+
+import cz.cvut.fel.java.Headless;
+import cz.cvut.fel.java.Rooms.Room;
+import cz.cvut.fel.java.dto.RoomMovementDto;
+import cz.cvut.fel.java.levels.GeneratedLevels;
+import cz.cvut.fel.java.levels.Level;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Movement checks of the player in a hub room with corridors on all sides: a step inside the room
+ * and a step through the wall, which looks up the doorway of the side (the private {@code canMoveX}
+ * and {@code canMoveY} of {@link Player}). The player is placed back before every step.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlayerMovementBenchmark {
+    private static final float STEP = 1f / 60f;
+
+    /**
+     * Number of corridors on each side of the hub, 4 times as many neighbors in total.
+     */
+    @Param({"1", "2", "3"})
+    public int neighborsPerSide;
+
+    private Player player;
+    private Room hub;
+
+    private float centerX;
+    private float centerY;
+
+    // Position at the left and at the bottom wall, in front of the last doorway of the side
+    private float leftWallX;
+    private float leftWallY;
+    private float bottomWallX;
+    private float bottomWallY;
+
+    @Setup
+    public void setUp() throws IOException {
+        Headless.init();
+
+        Path directory = Files.createTempDirectory("movement-benchmark");
+        Path source = GeneratedLevels.writeHub(directory.resolve("hub.json"), neighborsPerSide);
+        Level level = GeneratedLevels.load(source, directory.resolve("hub.bin"));
+        Files.deleteIfExists(directory.resolve("hub.bin"));
+        Files.deleteIfExists(source);
+        Files.deleteIfExists(directory);
+
+        hub = level.rooms.getRoomById(1);
+        hub.active = false;
+        player = Player.getDefaultPlayer();
+
+        float width = player.getWidth();
+        float height = player.getHeight();
+        float start = GeneratedLevels.HUB_POSITION;
+        float end = start + GeneratedLevels.HUB_SIZE;
+        float lastDoorway = end - (float) GeneratedLevels.HUB_SIZE / neighborsPerSide / 2;
+
+        centerX = (start + end - width) / 2;
+        centerY = (start + end - height) / 2;
+        leftWallX = start;
+        leftWallY = lastDoorway - height / 2;
+        bottomWallX = lastDoorway - width / 2;
+        bottomWallY = start;
+    }
+
+    @Benchmark
+    public RoomMovementDto moveInsideRoom() {
+        player.setPosition(centerX, centerY);
+        return player.moveLeft(hub, STEP);
+    }
+
+    @Benchmark
+    public RoomMovementDto moveThroughLeftWall() {
+        player.setPosition(leftWallX, leftWallY);
+        return player.moveLeft(hub, STEP);
+    }
+
+    @Benchmark
+    public RoomMovementDto moveThroughBottomWall() {
+        player.setPosition(bottomWallX, bottomWallY);
+        return player.moveDown(hub, STEP);
+    }
+}
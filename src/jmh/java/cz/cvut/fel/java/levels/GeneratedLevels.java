@@ -0,0 +1,159 @@
+package cz.cvut.fel.java.levels;
+
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import cz.cvut.fel.java.json.Json;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Writes generated level files for the benchmarks and loads them.
+ */
+public final class GeneratedLevels {
+    /**
+     * Position of the bottom left corner of the hub room on both axes.
+     */
+    public static final int HUB_POSITION = 1000;
+
+    /**
+     * Width and height of the hub room.
+     */
+    public static final int HUB_SIZE = 600;
+
+    /**
+     * Size of the rooms of the generated grid level.
+     */
+    private static final int ROOM_WIDTH = 200;
+    private static final int ROOM_HEIGHT = 120;
+
+    private GeneratedLevels() {}
+
+    /**
+     * Writes a level of side x side rooms in a grid, every room is a neighbor of the rooms next to it.
+     * Every other room is a fight room with the given number of enemies, the others are corridors.
+     *
+     * @param file the written level file
+     * @param side number of rooms along each axis
+     * @param enemiesPerRoom number of enemies of a fight room
+     * @return the file
+     */
+    public static Path writeGrid(Path file, int side, int enemiesPerRoom) throws IOException {
+        ObjectNode level = levelNode();
+        ArrayNode rooms = level.putArray("rooms");
+
+        for (int row = 0; row < side; row++) {
+            for (int column = 0; column < side; column++) {
+                int id = row * side + column + 1;
+                float x = column * ROOM_WIDTH;
+                float y = row * ROOM_HEIGHT;
+
+                ObjectNode room = room(rooms, id, (id == 1) ? "spawn" : (id % 2 == 0) ? "fight" : "corridor",
+                        x, y, ROOM_WIDTH, ROOM_HEIGHT);
+                ArrayNode neighbors = room.putArray("neighbors");
+                if (column > 0) {
+                    neighbors.add(id - 1);
+                }
+                if (column < side - 1) {
+                    neighbors.add(id + 1);
+                }
+                if (row > 0) {
+                    neighbors.add(id - side);
+                }
+                if (row < side - 1) {
+                    neighbors.add(id + side);
+                }
+
+                ObjectNode typeSpecific = room.putObject("type_specific");
+                if (id == 1) {
+                    ObjectNode spawnPoint = typeSpecific.putObject("spawnPoint");
+                    spawnPoint.put("posX", x + ROOM_WIDTH / 2f);
+                    spawnPoint.put("posY", y + ROOM_HEIGHT / 2f);
+                } else if (id % 2 == 0) {
+                    ArrayNode enemies = typeSpecific.putArray("enemies");
+                    for (int i = 0; i < enemiesPerRoom; i++) {
+                        ObjectNode enemy = enemies.addObject();
+                        enemy.put("type", (i % 2 == 0) ? "orc" : "goblin");
+                        enemy.put("posX", x + 20 + (i * 37) % (ROOM_WIDTH - 40));
+                        enemy.put("posY", y + 20 + (i * 23) % (ROOM_HEIGHT - 40));
+                    }
+                }
+            }
+        }
+
+        return write(file, level);
+    }
+
+    /**
+     * Writes a level of one square hub room with the given number of corridors on each of its sides.
+     * The hub has id 1 and spans from {@link #HUB_POSITION} with the size {@link #HUB_SIZE}.
+     *
+     * @param file the written level file
+     * @param neighborsPerSide number of corridors touching each side, at most 3
+     * @return the file
+     */
+    public static Path writeHub(Path file, int neighborsPerSide) throws IOException {
+        ObjectNode level = levelNode();
+        ArrayNode rooms = level.putArray("rooms");
+
+        ObjectNode hub = room(rooms, 1, "corridor", HUB_POSITION, HUB_POSITION, HUB_SIZE, HUB_SIZE);
+        ArrayNode hubNeighbors = hub.putArray("neighbors");
+
+        float length = (float) HUB_SIZE / neighborsPerSide;
+        int id = 2;
+        for (int i = 0; i < neighborsPerSide; i++) {
+            float along = HUB_POSITION + i * length;
+            // Left, right, bottom and top corridor
+            float[][] bounds = {
+                    {HUB_POSITION - HUB_SIZE, along, HUB_SIZE, length},
+                    {HUB_POSITION + HUB_SIZE, along, HUB_SIZE, length},
+                    {along, HUB_POSITION - HUB_SIZE, length, HUB_SIZE},
+                    {along, HUB_POSITION + HUB_SIZE, length, HUB_SIZE},
+            };
+            for (float[] corridor : bounds) {
+                room(rooms, id, "corridor", corridor[0], corridor[1], corridor[2], corridor[3])
+                        .putArray("neighbors").add(1);
+                hubNeighbors.add(id);
+                id++;
+            }
+        }
+
+        return write(file, level);
+    }
+
+    /**
+     * Loads a level file with its binary form, see {@link Level#createLevel(Path, Path)}.
+     *
+     * @param source the level file
+     * @param binary the binary form, written if it is missing
+     * @return the level
+     */
+    public static Level load(Path source, Path binary) {
+        return Level.createLevel(source, binary);
+    }
+
+    private static ObjectNode levelNode() {
+        ObjectNode level = Json.MAPPER.createObjectNode();
+        level.put("map", "level1_test_bg.png");
+        level.put("levelNumber", 1);
+        return level;
+    }
+
+    private static ObjectNode room(ArrayNode rooms, int id, String type, float x, float y, float width, float height) {
+        ObjectNode room = rooms.addObject();
+        room.put("type", type);
+        room.put("id", id);
+        ObjectNode dimensions = room.putObject("dimensions");
+        dimensions.put("width", width);
+        dimensions.put("height", height);
+        dimensions.put("posX", x);
+        dimensions.put("posY", y);
+        return room;
+    }
+
+    private static Path write(Path file, ObjectNode level) throws IOException {
+        Files.write(file, Json.MAPPER.writeValueAsBytes(level));
+        return file;
+    }
+}
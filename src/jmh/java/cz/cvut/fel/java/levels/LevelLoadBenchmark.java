@@ -0,0 +1,82 @@
+package cz.cvut.fel.java.levels;
+
+import cz.cvut.fel.java.Headless;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/**
+ * Loading of a small level of the game and of generated large levels: parsing the JSON file,
+ * reading the binary form and the whole {@link Level#createLevel(Path, Path)} including linking the rooms.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(java.util.concurrent.TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LevelLoadBenchmark {
+    /**
+     * "level1" is the first level of the game, "gridN" a generated level of N x N rooms.
+     */
+    @Param({"level1", "grid10", "grid40"})
+    public String level;
+
+    private Path directory;
+    private Path source;
+    private Path binary;
+
+    @Setup
+    public void setUp() throws IOException {
+        Headless.init();
+        directory = Files.createTempDirectory("level-benchmark");
+
+        if (level.equals("level1")) {
+            source = Level.sourcePath(1);
+        } else {
+            int side = Integer.parseInt(level.substring("grid".length()));
+            source = GeneratedLevels.writeGrid(directory.resolve("level.json"), side, 4);
+        }
+
+        // The binary form is compiled once, so the binary benchmarks only read it
+        binary = directory.resolve("level.bin");
+        Level.createLevel(source, binary);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public Level parseJson() throws IOException {
+        return LevelParser.parse(source.toFile());
+    }
+
+    @Benchmark
+    public Level readBinary() throws IOException {
+        return LevelBinary.load(source, binary);
+    }
+
+    @Benchmark
+    public Level createLevel() {
+        return Level.createLevel(source, binary);
+    }
+}
@@ -0,0 +1,107 @@
+package cz.cvut.fel.java.saves;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import cz.cvut.fel.java.Headless;
+import cz.cvut.fel.java.Rooms.Room;
+import cz.cvut.fel.java.characters.Player;
+import cz.cvut.fel.java.io.AtomicFiles;
+import cz.cvut.fel.java.json.Json;
+import cz.cvut.fel.java.levels.Level;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Round trips of the saves: the JSON game save and the world snapshots of the second level,
+ * encoded and decoded in memory and written to and read from a temporary directory
+ * the same way as the save writer does.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SaveBenchmark {
+    private JsonNode gameData;
+    private WorldSnapshot snapshot;
+    private WorldSnapshot changedSnapshot;
+    private byte[] full;
+
+    private Path directory;
+    private Path savePath;
+    private Path worldPath;
+
+    @Setup
+    public void setUp() throws IOException {
+        Headless.init();
+
+        gameData = Json.MAPPER.readTree(new SaveSlots().savePath(SaveSlots.DEFAULT_SLOT).toFile());
+
+        Level level = Level.createLevel(2);
+        Player player = Player.getDefaultPlayer();
+        Room room = level.rooms.get(0);
+        player.setPosition(room.bounds.x + 10, room.bounds.y + 10);
+        snapshot = WorldSnapshot.capture(level, player, room);
+        full = WorldCodec.encodeFull(snapshot, 1);
+
+        // An autosave a moment later, the player walked and one enemy was hit
+        player.setPosition(room.bounds.x + 20, room.bounds.y + 15);
+        for (Room fightRoom : level.rooms) {
+            if (fightRoom.enemies != null && !fightRoom.enemies.isEmpty()) {
+                fightRoom.enemies.damageEnemy(0, 1);
+                break;
+            }
+        }
+        changedSnapshot = WorldSnapshot.capture(level, player, room);
+
+        directory = Files.createTempDirectory("save-benchmark");
+        savePath = directory.resolve(SaveSlots.SAVE_FILE);
+        worldPath = directory.resolve("world.bin");
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(savePath);
+        Files.deleteIfExists(worldPath);
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    public WorldSnapshot worldFullInMemory() {
+        return WorldCodec.decodeFull(ByteBuffer.wrap(WorldCodec.encodeFull(snapshot, 1)));
+    }
+
+    @Benchmark
+    public WorldSnapshot worldDeltaInMemory() {
+        // The delta is applied to a decoded full snapshot, as when the game is loaded
+        byte[] delta = WorldCodec.encodeDelta(snapshot, 1, changedSnapshot);
+        return WorldCodec.applyDelta(WorldCodec.decodeFull(ByteBuffer.wrap(full)), ByteBuffer.wrap(delta));
+    }
+
+    @Benchmark
+    public WorldSnapshot worldFullOnDisk() throws IOException {
+        AtomicFiles.write(worldPath, WorldCodec.encodeFull(snapshot, 1));
+        return WorldCodec.decodeFull(ByteBuffer.wrap(Files.readAllBytes(worldPath)));
+    }
+
+    @Benchmark
+    public JsonNode gameSaveOnDisk() throws IOException {
+        AtomicFiles.write(savePath, Json.MAPPER.writeValueAsBytes(gameData));
+        return Json.MAPPER.readTree(Files.readAllBytes(savePath));
+    }
+}
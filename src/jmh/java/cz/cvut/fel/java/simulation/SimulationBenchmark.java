@@ -0,0 +1,96 @@
+package cz.cvut.fel.java.simulation;
+
+import cz.cvut.fel.java.Headless;
+import cz.cvut.fel.java.characters.Player;
+import cz.cvut.fel.java.levels.GeneratedLevels;
+import cz.cvut.fel.java.levels.Level;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Whole steps of the {@link Simulation} of a generated grid level, without a window.
+ *
+ * <p>The player walks to the right into the first fight room, which holds the player until its enemies
+ * are dead, and then back and forth in it, turning every {@link #TURN_STEPS} steps. The player attacks
+ * twice a second and is healed on every turn, so the steps measure a fight with moving enemies.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SimulationBenchmark {
+    private static final float STEP = 1f / 60f;
+
+    /**
+     * Number of steps after which the player turns around, 4 seconds of the game.
+     */
+    private static final int TURN_STEPS = 240;
+
+    /**
+     * Number of steps between two attacks of the player.
+     */
+    private static final int ATTACK_STEPS = 30;
+
+    /**
+     * Number of rooms along each axis of the grid level.
+     */
+    private static final int SIDE = 5;
+
+    private static final int PLAYER_HEALTH = 100;
+
+    @Param({"10", "100"})
+    public int enemiesPerRoom;
+
+    private Simulation simulation;
+    private int steps;
+
+    @Setup
+    public void setUp() throws IOException {
+        Headless.init();
+
+        Path directory = Files.createTempDirectory("simulation-benchmark");
+        Path source = GeneratedLevels.writeGrid(directory.resolve("grid.json"), SIDE, enemiesPerRoom);
+        Level level = GeneratedLevels.load(source, directory.resolve("grid.bin"));
+        Files.deleteIfExists(directory.resolve("grid.bin"));
+        Files.deleteIfExists(source);
+        Files.deleteIfExists(directory);
+
+        simulation = new Simulation(level, Player.getDefaultPlayer());
+        simulation.moveRight = true;
+        steps = 0;
+    }
+
+    @Benchmark
+    public Simulation step() {
+        if (++steps % TURN_STEPS == 0) {
+            simulation.moveRight = !simulation.moveRight;
+            simulation.moveLeft = !simulation.moveRight;
+
+            Player player = simulation.player;
+            player.restoreState(PLAYER_HEALTH, player.getStamina(), player.getBalance(), player.getArmor(),
+                    player.getEquippedWeapon());
+        }
+        if (steps % ATTACK_STEPS == 0) {
+            simulation.requestAttack();
+        }
+
+        simulation.step(STEP);
+        return simulation;
+    }
+}
@@ -1,10 +1,21 @@
 package cz.cvut.fel.java;
 
 import com.badlogic.gdx.Game;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.utils.viewport.ScreenViewport;
 import com.badlogic.gdx.utils.viewport.Viewport;
+import cz.cvut.fel.java.catalog.ArchetypeCatalog;
+import cz.cvut.fel.java.levels.LevelLoader;
+import cz.cvut.fel.java.logging.GameLog;
+import cz.cvut.fel.java.metrics.GameMetrics;
+import cz.cvut.fel.java.metrics.MetricsExporter;
+import cz.cvut.fel.java.saves.SaveService;
+import cz.cvut.fel.java.saves.SaveSlots;
 import cz.cvut.fel.java.screens.MainMenuScreen;
+import cz.cvut.fel.java.textures.RecordingTextureLoader;
 import lombok.Getter;
 
 /**
@@ -25,6 +36,30 @@ public class DungeonGame extends Game {
      */
     @Getter private Viewport viewport;
 
+    /**
+     * Asset manager loading the textures of the levels in the background.
+     * @return the asset manager shared by the screens
+     */
+    @Getter private AssetManager assets;
+
+    /**
+     * Catalog of the save slots.
+     * @return the save slots
+     */
+    @Getter private SaveSlots saveSlots;
+
+    /**
+     * Service writing the game save of the selected slot in the background.
+     * @return the save service
+     */
+    @Getter private SaveService saveService;
+
+    /**
+     * Loader preparing the levels on a background thread.
+     * @return the level loader
+     */
+    @Getter private LevelLoader levelLoader;
+
     /**
      * Called when the application is first created.
      * Initializes rendering tools and sets the initial screen to the main menu.
@@ -34,11 +69,38 @@ public class DungeonGame extends Game {
         // Initialize the viewport and batch
         this.batch = new SpriteBatch();
         this.viewport = new ScreenViewport();
+        this.assets = new AssetManager();
+        // Texture loads are recorded by the flight recorder
+        this.assets.setLoader(Texture.class, new RecordingTextureLoader(assets.getFileHandleResolver()));
+        this.saveSlots = new SaveSlots();
+        this.saveService = new SaveService(saveSlots, SaveSlots.DEFAULT_SLOT);
+        this.levelLoader = new LevelLoader(saveService);
+
+        // Load the enemy and weapon stats before any level uses them
+        ArchetypeCatalog.ensureLoaded();
+
+        // Export the metrics if enabled for a soak run
+        MetricsExporter.startIfEnabled();
 
         // Set the initial screen to the main menu
         this.setScreen(new MainMenuScreen(this));
     }
 
+    /**
+     * Selects the save slot the game is loaded from and saved to.
+     * The saves of the previous slot waiting to be written are written first.
+     *
+     * @param slot name of the slot
+     */
+    public void selectSlot(String slot) {
+        if (slot.equals(saveService.getSlot())) {
+            return;
+        }
+        saveService.dispose();
+        saveService = new SaveService(saveSlots, slot);
+        levelLoader.useSaveService(saveService);
+    }
+
     /**
      * Called every frame to update and render the current screen.
      * Delegates the rendering to the currently active screen.
@@ -47,5 +109,26 @@ public class DungeonGame extends Game {
     public void render() {
         // Updates and renders the active screen
         super.render();
+
+        GameMetrics.frame(Gdx.graphics.getDeltaTime());
+    }
+
+    /**
+     * Called when the application is closing.
+     * Hides the current screen and releases the shared rendering resources.
+     */
+    @Override
+    public void dispose() {
+        super.dispose();
+
+        batch.dispose();
+        levelLoader.dispose();
+        // Lets the last save finish writing
+        saveService.dispose();
+        assets.dispose();
+
+        // Write the game events still waiting in the log and the last metrics
+        GameLog.flush();
+        MetricsExporter.stop();
     }
 }
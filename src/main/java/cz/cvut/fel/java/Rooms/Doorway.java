@@ -0,0 +1,55 @@
+package cz.cvut.fel.java.Rooms;
+
+/**
+ * Passage from a room to a neighboring room on one side of the room.
+ * The doorway spans the interval shared by the edges of both rooms, along the y axis
+ * for the left and right side and along the x axis for the bottom and top side.
+ */
+public class Doorway {
+    /**
+     * Minimal part of the player's size that must overlap the doorway to pass through it.
+     */
+    private static final float MIN_PASSAGE_OVERLAP = 0.3f;
+
+    /**
+     * The room the doorway leads to.
+     */
+    public final Room neighbor;
+
+    /**
+     * Start of the shared interval.
+     */
+    public final float from;
+
+    /**
+     * End of the shared interval.
+     */
+    public final float to;
+
+    public Doorway(Room neighbor, float from, float to) {
+        this.neighbor = neighbor;
+        this.from = from;
+        this.to = to;
+    }
+
+    /**
+     * Checks whether the player spanning the given interval along the doorway fits through it.
+     *
+     * @param start start of the player's interval
+     * @param end end of the player's interval
+     * @return true if at least 30 % of the player's interval overlaps the doorway
+     */
+    public boolean admits(float start, float end) {
+        float overlap = Math.min(end, to) - Math.max(start, from);
+        return overlap > MIN_PASSAGE_OVERLAP * (end - start);
+    }
+
+    @Override
+    public String toString() {
+        return "Doorway{" +
+                "neighbor=" + neighbor.id +
+                ", from=" + from +
+                ", to=" + to +
+                '}';
+    }
+}
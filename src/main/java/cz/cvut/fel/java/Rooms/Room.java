@@ -3,25 +3,31 @@ package cz.cvut.fel.java.Rooms;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
 import com.badlogic.gdx.math.Rectangle;
-import com.fasterxml.jackson.databind.JsonNode;
+import com.badlogic.gdx.utils.IntArray;
 import cz.cvut.fel.java.characters.Dragon;
 import cz.cvut.fel.java.characters.Enemies;
-import cz.cvut.fel.java.characters.Enemy;
 import cz.cvut.fel.java.characters.Trader;
 import cz.cvut.fel.java.dto.DimensionsDto;
+import cz.cvut.fel.java.rendering.RenderLayer;
+import cz.cvut.fel.java.rendering.RenderQueue;
 import cz.cvut.fel.java.structures.Portal;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 
 public class Room {
     public Rectangle bounds;
     public DimensionsDto dimensions;
     public int id;
-    public String type;
+    public RoomType type;
 
-    public ArrayList<Integer> neighborsIds;
+    public IntArray neighborsIds = new IntArray();
     public Rooms neighbors = new Rooms(); // List of neighboring rooms, if applicable
 
+    /**
+     * Doorways to the neighboring rooms indexed by the {@link RoomSide} they are on, built by the level on load.
+     */
+    private final Doorway[][] doorways = new Doorway[RoomSide.values().length][0];
+
     public Rectangle curtain;
 
     public boolean active = false;
@@ -34,42 +40,46 @@ public class Room {
     public Trader trader;
     public Dragon boss;
 
-    public Room(JsonNode roomData) {
-        this.id = roomData.get("id").asInt();
-        this.type = roomData.get("type").asText();
-
-        handleType(roomData);
-
-        defineDimensions(roomData.get("dimensions"));
+    /**
+     * Positions of the trader and the boss read from the level file, the characters themselves
+     * are created by {@link #createCharacters()} when the level is played.
+     */
+    private float[] traderPosition;
+    private float[] bossPosition;
+
+    /**
+     * Creates a room of the given type. The content specific to the type (spawn point, enemies,
+     * portal, trader and boss) is added afterwards by the level parser.
+     *
+     * @param id id of the room
+     * @param type type of the room
+     * @param dimensions position and size of the room
+     */
+    public Room(int id, RoomType type, DimensionsDto dimensions) {
+        this.id = id;
+        this.type = type;
+
+        // Dimensions first, the enemies of a fight room are indexed over the room bounds
+        this.dimensions = dimensions;
         this.bounds = defineRectangle();
         this.curtain = defineRectangle();
 
-        extractNeighborsIds(roomData.get("neighbors"));
+        handleType();
     }
 
-    private void handleType(JsonNode roomData) {
-        if (type.equals("spawn")) {
-            defineSpawnRoom(roomData.get("type_specific"));
-        } else if (type.equals("fight")) {
-            defineFightRoom(roomData.get("type_specific"));
-        } else if (type.equals("portal")) {
-            definePortalRoom(roomData.get("type_specific"));
-        } else if (type.equals("trader")) {
-            defineTraderRoom(roomData.get("type_specific"));
-        } else if (type.equals("boss")) {
-            defineBossRoom(roomData.get("type_specific"));
+    private void handleType() {
+        switch (type) {
+            case SPAWN -> defineSpawnRoom();
+            case FIGHT -> defineFightRoom();
+            case PORTAL -> definePortalRoom();
+            case TRADER -> defineTraderRoom();
+            case BOSS -> defineBossRoom();
+            default -> {
+                // Corridors have no specific properties
+            }
         }
     }
 
-    private void defineDimensions(JsonNode roomData) {
-        this.dimensions = new DimensionsDto(
-            (float) roomData.get("width").asDouble(),
-            (float) roomData.get("height").asDouble(),
-            (float) roomData.get("posX").asDouble(),
-            (float)roomData.get("posY").asDouble()
-        );
-    }
-
     private Rectangle defineRectangle() {
         return new Rectangle(
             dimensions.x,
@@ -79,117 +89,166 @@ public class Room {
         );
     }
 
-    private void extractNeighborsIds(JsonNode neighborsData) {
-        this.neighborsIds = new ArrayList<>();
-        for (JsonNode neighbor : neighborsData) {
-            this.neighborsIds.add(neighbor.asInt());
-        }
-    }
-
-    private void defineSpawnRoom(JsonNode roomData) {
-
-        JsonNode spawnPointData = roomData.get("spawnPoint");
-        this.spawnPoint = new float[]{
-                (float) spawnPointData.get("posX").asDouble(),
-                (float) spawnPointData.get("posY").asDouble()
-        };
-
+    private void defineSpawnRoom() {
         this.visited = true;
         this.prepared = false; // Spawn room is not prepared for interaction
         this.active = false;
     }
 
-    private void defineFightRoom(JsonNode roomData) {
+    private void defineFightRoom() {
         // Define specific properties for fight rooms if needed
         this.visited = false; // Fight rooms are not visited initially
         this.prepared = true; // Fight rooms are prepared for interaction
         this.active = false; // Fight rooms are not active initially
 
-        enemies = new Enemies();
-        System.out.println(roomData);
-        JsonNode enemiesData = roomData.get("enemies");
-        if (enemiesData.isArray()) {
-            for (JsonNode enemyData : enemiesData) {
-                float enemyPosX = (float) enemyData.get("posX").asDouble();
-                float enemyPosY = (float) enemyData.get("posY").asDouble();
-
-                Enemy newEnemy = new Enemy(enemyData.get("type").asText());
-                newEnemy.setPosition(enemyPosX, enemyPosY);
-                enemies.addEnemy(newEnemy);
-            }
-        } else if (!enemiesData.isMissingNode()) {
-            float enemyPosX = (float) enemiesData.get("posX").asDouble();
-            float enemyPosY = (float) enemiesData.get("posY").asDouble();
-
-            Enemy newEnemy = new Enemy(enemiesData.get("type").asText());
-            newEnemy.setPosition(enemyPosX, enemyPosY);
-            enemies.addEnemy(newEnemy);
-        }
+        enemies = new Enemies(bounds);
     }
 
-    private void definePortalRoom(JsonNode roomData) {
+    private void definePortalRoom() {
         // Define specific properties for portal rooms if needed
         this.visited = false; // Portal rooms are not visited initially
         this.prepared = false; // Portal rooms are prepared for interaction
         this.active = false; // Portal rooms are not active initially
-
-        // Additional portal-specific logic can be added here
-        JsonNode portalData = roomData.get("portal");
-        this.portal = new Portal(
-                (float) portalData.get("posX").asDouble(),
-                (float) portalData.get("posY").asDouble()
-        );
     }
 
-    private void defineTraderRoom(JsonNode roomData) {
+    private void defineTraderRoom() {
         // Define specific properties for trader rooms if needed
         this.visited = false; // Trader rooms are not visited initially
         this.prepared = false; // Trader rooms are prepared for interaction
         this.active = false; // Trader rooms are not active initially
-
-        // Additional trader-specific logic can be added here
-        JsonNode traderData = roomData.get("trader");
-        this.trader = new Trader();
-        trader.setPosition(
-            (float) traderData.get("posX").asDouble(),
-            (float) traderData.get("posY").asDouble()
-        );
     }
 
-    private void defineBossRoom(JsonNode roomData) {
+    private void defineBossRoom() {
         // Define specific properties for boss rooms if needed
         this.visited = false; // Boss rooms are not visited initially
         this.prepared = true; // Boss rooms are prepared for interaction
         this.active = false; // Boss rooms are not active initially
+    }
 
-        // Additional boss-specific logic can be added here
-        JsonNode bossData = roomData.get("boss");
-        this.boss = new Dragon();
-        this.boss.setPosition(
-            (float) bossData.get("posX").asDouble(),
-            (float) bossData.get("posY").asDouble()
-        );
+    public void addNeighborId(int neighborId) {
+        this.neighborsIds.add(neighborId);
+    }
+
+    public void setSpawnPoint(float x, float y) {
+        this.spawnPoint = new float[]{x, y};
+    }
+
+    /**
+     * Adds an enemy to the room. Only fight rooms have enemies.
+     *
+     * @param enemyType type of the enemy ("orc", "goblin")
+     * @param x x position of the enemy
+     * @param y y position of the enemy
+     */
+    public void spawnEnemy(String enemyType, float x, float y) {
+        enemies.spawn(enemyType, x, y);
     }
 
+    public void setPortal(float x, float y) {
+        this.portal = new Portal(x, y);
+    }
+
+    public void setTraderPosition(float x, float y) {
+        this.traderPosition = new float[]{x, y};
+    }
+
+    public void setBossPosition(float x, float y) {
+        this.bossPosition = new float[]{x, y};
+    }
+
+    /**
+     * @return position of the trader read from the level file, or null if the room has no trader
+     */
+    public float[] getTraderPosition() {
+        return traderPosition;
+    }
+
+    /**
+     * @return position of the boss read from the level file, or null if the room has no boss
+     */
+    public float[] getBossPosition() {
+        return bossPosition;
+    }
+
+    /**
+     * Creates the trader and the boss of the room. The characters do not need the GL context,
+     * their sprites and texts are created when they are rendered first.
+     */
+    public void createCharacters() {
+        if (traderPosition != null && trader == null) {
+            this.trader = new Trader();
+            trader.setPosition(traderPosition[0], traderPosition[1]);
+        }
+        if (bossPosition != null && boss == null) {
+            this.boss = new Dragon();
+            boss.setPosition(bossPosition[0], bossPosition[1]);
+        }
+    }
 
-    public void renderCurtain(ShapeRenderer shapeRenderer) {
+
+    /**
+     * Adds a doorway to a neighboring room on the given side.
+     *
+     * @param side side of the room the doorway is on
+     * @param doorway the doorway
+     */
+    public void addDoorway(RoomSide side, Doorway doorway) {
+        Doorway[] sideDoorways = doorways[side.ordinal()];
+        sideDoorways = Arrays.copyOf(sideDoorways, sideDoorways.length + 1);
+        sideDoorways[sideDoorways.length - 1] = doorway;
+        doorways[side.ordinal()] = sideDoorways;
+    }
+
+    /**
+     * Finds the doorway on the given side the player spanning the given interval fits through.
+     * A side usually has at most one doorway, so the lookup does not depend on the number of rooms.
+     *
+     * @param side side of the room the player leaves through
+     * @param start start of the player's interval along the side
+     * @param end end of the player's interval along the side
+     * @return the doorway, or null if the player cannot leave the room there
+     */
+    public Doorway getDoorway(RoomSide side, float start, float end) {
+        Doorway[] sideDoorways = doorways[side.ordinal()];
+        for (int i = 0; i < sideDoorways.length; i++) {
+            if (sideDoorways[i].admits(start, end)) {
+                return sideDoorways[i];
+            }
+        }
+        return null;
+    }
+
+    public void renderCurtain(RenderQueue renderQueue) {
         // Check if the room is prepared but
         if (!visited) {
-            shapeRenderer.begin(ShapeRenderer.ShapeType.Filled);
-            shapeRenderer.setColor(Color.BLACK);
-            shapeRenderer.rect(curtain.x, curtain.y, curtain.width, curtain.height);
-            shapeRenderer.end();
+            renderQueue.rect(RenderLayer.WORLD, ShapeRenderer.ShapeType.Filled, Color.BLACK,
+                    curtain.x, curtain.y, curtain.width, curtain.height);
         }
     }
 
 
     public void checkFightRoomStatus() {
-        if (enemies.currentEnemies.isEmpty()){
+        if (enemies.isEmpty()){
             this.prepared = false;
             this.active = false;
         }
     }
 
+    /**
+     * Releases the resources of all characters placed in the room.
+     */
+    public void dispose() {
+        if (enemies != null) {
+            enemies.dispose();
+        }
+        if (trader != null) {
+            trader.dispose();
+        }
+        if (boss != null) {
+            boss.dispose();
+        }
+    }
+
 
 
     @Override
@@ -0,0 +1,11 @@
+package cz.cvut.fel.java.Rooms;
+
+/**
+ * Side of a room through which the player can move into a neighboring room.
+ */
+public enum RoomSide {
+    LEFT,
+    RIGHT,
+    BOTTOM,
+    TOP
+}
@@ -0,0 +1,43 @@
+package cz.cvut.fel.java.Rooms;
+
+/**
+ * Kind of a room, as written in the "type" field of the room in the level file.
+ */
+public enum RoomType {
+    SPAWN("spawn"),
+    FIGHT("fight"),
+    PORTAL("portal"),
+    TRADER("trader"),
+    BOSS("boss"),
+    CORRIDOR("corridor");
+
+    /**
+     * Name of the kind in the level file.
+     */
+    public final String name;
+
+    RoomType(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Returns the kind with the given name from the level file.
+     *
+     * @param name name of the kind
+     * @return the kind
+     * @throws IllegalArgumentException if there is no kind with the name
+     */
+    public static RoomType fromName(String name) {
+        for (RoomType type : values()) {
+            if (type.name.equals(name)) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("Unknown room type: " + name);
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
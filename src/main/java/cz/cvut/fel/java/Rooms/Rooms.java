@@ -1,40 +1,88 @@
 package cz.cvut.fel.java.Rooms;
 
+import com.badlogic.gdx.utils.IntMap;
+
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.List;
 
-public class Rooms extends ArrayList<Room> {
+/**
+ * Collection of rooms kept in the order they were added. The rooms are also indexed
+ * by their id and by their type, so looking a room up does not scan the collection.
+ */
+public class Rooms implements Iterable<Room> {
+    /**
+     * Rooms in the order they were added.
+     */
+    private final ArrayList<Room> rooms = new ArrayList<>();
 
-    public Room getSpawnRoom() {
-        for (Room room : this) {
-            if (room.type.equals("spawn")) {
-                return room;
-            }
+    /**
+     * Rooms indexed by their id.
+     */
+    private final IntMap<Room> roomsById = new IntMap<>();
+
+    /**
+     * Rooms of each type, in the order they were added.
+     */
+    private final EnumMap<RoomType, ArrayList<Room>> roomsByType = new EnumMap<>(RoomType.class);
+
+    public Rooms() {
+        for (RoomType type : RoomType.values()) {
+            roomsByType.put(type, new ArrayList<>());
         }
-        return null; // or throw an exception if no spawn room is found
+    }
+
+    public void add(Room room) {
+        rooms.add(room);
+        roomsById.put(room.id, room);
+        roomsByType.get(room.type).add(room);
+    }
+
+    public Room get(int index) {
+        return rooms.get(index);
+    }
+
+    public int size() {
+        return rooms.size();
+    }
+
+    public boolean isEmpty() {
+        return rooms.isEmpty();
+    }
+
+    @Override
+    public Iterator<Room> iterator() {
+        return rooms.iterator();
+    }
+
+    public Room getSpawnRoom() {
+        return getFirstOfType(RoomType.SPAWN); // null if no spawn room is found
     }
     public Room getPortalRoom() {
-        for (Room room : this) {
-            if (room.type.equals("portal")) {
-                return room;
-            }
-        }
-        return null; // or throw an exception if no fight room is found
+        return getFirstOfType(RoomType.PORTAL); // null if no portal room is found
     }
     public Room getTraderRoom() {
-        for (Room room : this) {
-            if (room.type.equals("trader")) {
-                return room;
-            }
-        }
-        return null; // or throw an exception if no trader room is found
+        return getFirstOfType(RoomType.TRADER); // null if no trader room is found
     }
 
     public Room getRoomById(int id) {
-        for (Room room : this) {
-            if (room.id == id) {
-                return room;
-            }
-        }
-        return null; // or throw an exception if no room with the given ID is found
+        return roomsById.get(id); // null if no room with the given ID is found
+    }
+
+    /**
+     * Returns all rooms of the given type.
+     *
+     * @param type the type of the rooms
+     * @return unmodifiable list of the rooms, in the order they were added
+     */
+    public List<Room> getRoomsOfType(RoomType type) {
+        return Collections.unmodifiableList(roomsByType.get(type));
+    }
+
+    private Room getFirstOfType(RoomType type) {
+        ArrayList<Room> bucket = roomsByType.get(type);
+        return bucket.isEmpty() ? null : bucket.get(0);
     }
 }
@@ -0,0 +1,235 @@
+package cz.cvut.fel.java.catalog;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import cz.cvut.fel.java.characters.Enemy;
+import cz.cvut.fel.java.characters.EnemyAppearance;
+import cz.cvut.fel.java.characters.EnemyTypes;
+import cz.cvut.fel.java.io.AtomicFiles;
+import cz.cvut.fel.java.io.Names;
+import cz.cvut.fel.java.json.Json;
+import cz.cvut.fel.java.objects.weapons.WeaponType;
+import cz.cvut.fel.java.objects.weapons.WeaponTypes;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Locale;
+import java.util.logging.Logger;
+
+/**
+ * Loads the stats of the weapon kinds and enemy types from the catalog resource
+ * and registers them in {@link WeaponTypes} and {@link EnemyTypes}.
+ *
+ * <p>The JSON catalog is compiled into a binary cache the first time it is loaded. Later loads
+ * memory-map the cache and read it without parsing JSON. The cache stores the size and the
+ * modification time of the catalog it was compiled from, so editing the catalog recompiles it.
+ *
+ * <p>Cache layout (big endian): magic, version, catalog size, catalog modification time,
+ * the number of weapons followed by the weapons (name, damage, range, stamina cost) and
+ * the number of enemies followed by the enemies (name, max health, speed, attack cooldown,
+ * weapon name, reward, appearance name). Names are stored as a short length and UTF-8 bytes.
+ */
+public final class ArchetypeCatalog {
+    private static final Logger logger = Logger.getLogger(ArchetypeCatalog.class.getName());
+
+    /**
+     * Path of the catalog resource.
+     */
+    public static final String CATALOG_PATH = "src/main/resources/catalog/archetypes.json";
+
+    /**
+     * Path of the compiled cache of the catalog.
+     */
+    public static final String CACHE_PATH = "src/main/resources/cache/archetypes.bin";
+
+    private static final int MAGIC = 0x41524348; // "ARCH"
+    private static final int VERSION = 1;
+
+    /**
+     * Flag indicating whether the catalog was already loaded.
+     */
+    private static boolean loaded = false;
+
+    /**
+     * Flag indicating whether the catalog is being loaded. Registering the enemy types looks up their weapons,
+     * which calls {@link #ensureLoaded()} again on the same thread.
+     */
+    private static boolean loading = false;
+
+    private ArchetypeCatalog() {}
+
+    /**
+     * Loads the catalog and registers its types, unless it was already loaded.
+     * A failed load is tried again by the next call.
+     *
+     * @throws UncheckedIOException if the catalog cannot be read
+     */
+    public static synchronized void ensureLoaded() {
+        if (loaded || loading) {
+            return;
+        }
+        loading = true;
+        try {
+            load(Path.of(CATALOG_PATH), Path.of(CACHE_PATH));
+            loaded = true;
+        } finally {
+            loading = false;
+        }
+    }
+
+    /**
+     * Registers the types of the given catalog, read from the cache if it is up to date.
+     * Otherwise the catalog is compiled and the cache is rewritten.
+     *
+     * @param catalog path of the JSON catalog
+     * @param cache path of the binary cache
+     */
+    static void load(Path catalog, Path cache) {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(catalog, BasicFileAttributes.class);
+            long sourceSize = attributes.size();
+            long sourceModified = attributes.lastModifiedTime().toMillis();
+
+            if (readCache(cache, sourceSize, sourceModified)) {
+                return;
+            }
+
+            logger.info("Compiling archetype catalog " + catalog);
+            byte[] compiled = compile(catalog, sourceSize, sourceModified);
+            writeCache(cache, compiled);
+
+            ByteBuffer buffer = ByteBuffer.wrap(compiled);
+            readHeader(buffer, sourceSize, sourceModified);
+            register(buffer);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot load archetype catalog " + catalog, e);
+        }
+    }
+
+    /**
+     * Registers the types from the cache if it exists and was compiled from the current catalog.
+     *
+     * @return true if the types were registered, false if the cache must be compiled
+     */
+    private static boolean readCache(Path cache, long sourceSize, long sourceModified) {
+        if (!Files.isRegularFile(cache)) {
+            return false;
+        }
+
+        try (FileChannel channel = FileChannel.open(cache, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+            if (!readHeader(buffer, sourceSize, sourceModified)) {
+                return false;
+            }
+
+            register(buffer);
+            return true;
+        } catch (IOException | BufferUnderflowException | IllegalArgumentException e) {
+            logger.warning("Archetype cache " + cache + " is unreadable, compiling the catalog: " + e);
+            return false;
+        }
+    }
+
+    /**
+     * Reads the header of the cache.
+     *
+     * @return true if the buffer holds a cache of the current version compiled from the given catalog
+     */
+    private static boolean readHeader(ByteBuffer buffer, long sourceSize, long sourceModified) {
+        return buffer.remaining() >= 24
+                && buffer.getInt() == MAGIC
+                && buffer.getInt() == VERSION
+                && buffer.getLong() == sourceSize
+                && buffer.getLong() == sourceModified;
+    }
+
+    /**
+     * Compiles the JSON catalog into the binary form.
+     */
+    private static byte[] compile(Path catalog, long sourceSize, long sourceModified) throws IOException {
+        JsonNode root = Json.MAPPER.readTree(catalog.toFile());
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeLong(sourceSize);
+        out.writeLong(sourceModified);
+
+        JsonNode weapons = root.path("weapons");
+        out.writeInt(weapons.size());
+        for (JsonNode weapon : weapons) {
+            Names.write(out, weapon.get("name").asText());
+            out.writeInt(weapon.get("damage").asInt());
+            out.writeFloat((float) weapon.get("range").asDouble());
+            out.writeFloat((float) weapon.path("staminaCost").asDouble());
+        }
+
+        JsonNode enemies = root.path("enemies");
+        out.writeInt(enemies.size());
+        for (JsonNode enemy : enemies) {
+            Names.write(out, enemy.get("name").asText());
+            out.writeInt(enemy.get("maxHealth").asInt());
+            out.writeFloat((float) enemy.get("speed").asDouble());
+            out.writeFloat((float) enemy.get("attackCooldown").asDouble());
+            Names.write(out, enemy.get("weapon").asText());
+            out.writeInt(enemy.get("reward").asInt());
+            Names.write(out, enemy.get("appearance").asText());
+        }
+
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Writes the compiled catalog with {@link AtomicFiles}, so a crash never leaves a partial cache.
+     * The game still runs from the compiled bytes if the cache cannot be written.
+     */
+    private static void writeCache(Path cache, byte[] compiled) {
+        try {
+            AtomicFiles.write(cache, compiled);
+        } catch (IOException e) {
+            logger.warning("Cannot write archetype cache " + cache + ": " + e);
+        }
+    }
+
+    /**
+     * Registers the weapons and enemies stored in the buffer after its header.
+     */
+    private static void register(ByteBuffer buffer) {
+        int weaponCount = buffer.getInt();
+        for (int i = 0; i < weaponCount; i++) {
+            String name = Names.read(buffer);
+            int damage = buffer.getInt();
+            float range = buffer.getFloat();
+            float staminaCost = buffer.getFloat();
+
+            WeaponTypes.register(new WeaponType(name, damage, range, staminaCost));
+        }
+
+        int enemyCount = buffer.getInt();
+        for (int i = 0; i < enemyCount; i++) {
+            String name = Names.read(buffer);
+            int maxHealth = buffer.getInt();
+            float speed = buffer.getFloat();
+            float attackCooldown = buffer.getFloat();
+            String weapon = Names.read(buffer);
+            int reward = buffer.getInt();
+            String appearance = Names.read(buffer);
+
+            EnemyTypes.register(new Enemy(name, maxHealth, speed, attackCooldown,
+                    WeaponTypes.get(weapon), reward, EnemyAppearance.valueOf(appearance.toUpperCase(Locale.ROOT))));
+        }
+    }
+}
@@ -1,13 +1,17 @@
 package cz.cvut.fel.java.characters;
 
-import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.Sprite;
 import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
 import com.badlogic.gdx.math.Vector2;
+import cz.cvut.fel.java.dto.BarStyle;
 import cz.cvut.fel.java.dto.BarVisualDto;
 import cz.cvut.fel.java.dto.MovementDto;
+import cz.cvut.fel.java.logging.GameEvent;
+import cz.cvut.fel.java.logging.GameLog;
 import cz.cvut.fel.java.objects.weapons.Weapon;
+import cz.cvut.fel.java.rendering.RenderLayer;
+import cz.cvut.fel.java.rendering.RenderQueue;
+import cz.cvut.fel.java.textures.CharacterAtlas;
 import lombok.Getter;
 
 import java.util.logging.Logger;
@@ -18,8 +22,11 @@ import java.util.logging.Logger;
 /**
  * The class represents a game character with health,
  * movement, and weapon attributes. It supports healing, taking damage,
- * updating its position and texture based on movement, and disposing
+ * updating its position and pose based on movement, and disposing
  * of resources when no longer needed.
+ *
+ * <p>The position, size and pose are plain fields, so the character can be simulated without a GL context.
+ * The sprite is only a view of them, created on the first render and synced before each render.
  */
 public class Character {
     private static final Logger logger = Logger.getLogger(Character.class.getName());
@@ -31,7 +38,7 @@ public class Character {
     /**
      * Current health of the character.
      */
-    protected int health;
+    @Getter protected int health;
 
     /**
      * Movement speed of the character.
@@ -41,22 +48,62 @@ public class Character {
     /**
      * The weapon currently equipped by the character.
      */
-    protected Weapon equippedWeapon;
+    @Getter protected Weapon equippedWeapon;
 
     /**
-     * The sprite representing the character's visual representation.
+     * Position of the bottom left corner of the character.
      */
-    @Getter protected Sprite sprite;
+    @Getter protected float x;
+    @Getter protected float y;
 
     /**
-     * The texture used for the character's visual representation.
+     * Size of the character, the size of its pose in the {@link CharacterAtlas}.
      */
-    protected Texture texture;
+    @Getter protected float width;
+    @Getter protected float height;
 
     /**
-     * The name of the texture used for the character's attack.
+     * The sprite showing the character, null until the character is rendered.
      */
-    protected String attackTextureName;
+    private Sprite sprite;
+
+    /**
+     * Index of the {@link CharacterAtlas} region shown by the sprite.
+     */
+    private int spriteRegion = -1;
+
+    /**
+     * Position of the character at the start of the last simulation step, used to interpolate rendering.
+     */
+    protected float previousX;
+    protected float previousY;
+
+    /**
+     * Index of the {@link CharacterAtlas} region of the character's current pose.
+     */
+    protected int region = -1;
+
+    /**
+     * Index of the {@link CharacterAtlas} region used for the character's attack.
+     */
+    protected int attackRegion;
+
+    /**
+     * Bars shown above the character, created once and updated before each render.
+     */
+    private BarVisualDto[] bars;
+
+    /**
+     * Creates a character in the given initial pose, its size is taken from the {@link CharacterAtlas}.
+     * Nothing is loaded, the atlas is acquired when the character is rendered.
+     *
+     * @param region index of the initial region
+     */
+    protected Character(int region) {
+        this.region = region;
+        this.width = CharacterAtlas.getWidth(region);
+        this.height = CharacterAtlas.getHeight(region);
+    }
 
     /**
      * Checks whether the character is alive.
@@ -75,15 +122,23 @@ public class Character {
      * @return true if the character is still alive, false if the character is dead
      */
     protected boolean takeDamage(int damage) {
-        logger.info("taking damage: " + damage);
-
         this.health -= damage;
         if (this.health < 0) {
             this.health = 0;
         }
+        GameLog.log(GameEvent.CHARACTER_DAMAGED, damage, this.health);
         return this.isAlive();
     }
 
+    /**
+     * Sets the health of the character restored from a save.
+     *
+     * @param health the saved health
+     */
+    public void restoreHealth(int health) {
+        this.health = health;
+    }
+
     /**
      * Heals the character by the specified amount.
      * If the health exceeds the maximum health, it is set to the maximum health.
@@ -98,26 +153,69 @@ public class Character {
     }
 
     /**
-     * Updates the character's movement and sprite texture based on input.
+     * Updates the character's movement and pose based on input.
+     *
+     * @param movementDetail contains delta movement and region index
+     * @param delta duration of the simulation step in seconds
+     */
+    protected void updateMovement(MovementDto movementDetail, float delta) {
+        updateMovement(movementDetail.deltaX, movementDetail.deltaY, movementDetail.region, delta);
+    }
+
+    /**
+     * Updates the character's movement and pose without a movement object.
      *
-     * @param movementDetail contains delta movement and texture name
+     * @param deltaX movement speed along the x axis
+     * @param deltaY movement speed along the y axis
+     * @param region index of the region reflecting the movement direction
+     * @param delta duration of the simulation step in seconds
      */
-    protected void updateMovementTexture(MovementDto movementDetail) {
-        float delta = Gdx.graphics.getDeltaTime();
+    protected void updateMovement(float deltaX, float deltaY, int region, float delta) {
+        // Move by deltaX and deltaY scaled by delta time
+        this.x += deltaX * delta;
+        this.y += deltaY * delta;
+        // Change the pose to reflect movement direction
+        changeRegion(region);
+    }
 
-        // Move the sprite by deltaX and deltaY scaled by delta time
-        this.sprite.translate(movementDetail.deltaX * delta, movementDetail.deltaY * delta);
-        // Change the sprite's texture to reflect movement direction
-        this.sprite.setTexture(new Texture(movementDetail.textureName));
+    /**
+     * Changes the pose of the character to another region of the {@link CharacterAtlas}.
+     * The sprite shows it from the next render.
+     *
+     * @param region index of the new region
+     */
+    protected void changeRegion(int region) {
+        this.region = region;
     }
 
     /**
-     * Frees up resources used by the character, such as the sprite's texture.
+     * Returns the sprite showing the character in its current pose. The sprite is created and the atlas
+     * acquired on the first call, so it must be called on the render thread.
+     *
+     * @return the sprite
+     */
+    public Sprite getSprite() {
+        if (this.sprite == null) {
+            CharacterAtlas.acquire();
+            this.sprite = new Sprite(CharacterAtlas.getRegion(this.region));
+            this.spriteRegion = this.region;
+        } else if (this.spriteRegion != this.region) {
+            // All regions share one texture, so no texture is loaded or switched
+            this.sprite.setRegion(CharacterAtlas.getRegion(this.region));
+            this.spriteRegion = this.region;
+        }
+        this.sprite.setPosition(this.x, this.y);
+        return this.sprite;
+    }
+
+    /**
+     * Frees up resources used by the character, such as its reference to the sprite atlas.
      * Should be called when the character is no longer needed.
      */
     public void dispose() {
-        if (this.sprite != null && this.sprite.getTexture() != null) {
-            this.sprite.getTexture().dispose();
+        if (this.sprite != null) {
+            CharacterAtlas.release();
+            this.sprite = null;
         }
     }
 
@@ -127,36 +225,94 @@ public class Character {
      * @return the character's position (x, y)
      */
     public Vector2 getPosition() {
-        return new Vector2(this.sprite.getX(), this.sprite.getY());
+        return getPosition(new Vector2());
     }
 
-    protected BarVisualDto[] getBarDto() {
+    /**
+     * Writes the current position of the character into the given vector, so no vector is allocated.
+     *
+     * @param out vector the position is written to
+     * @return the given vector
+     */
+    public Vector2 getPosition(Vector2 out) {
+        return out.set(this.x, this.y);
+    }
+
+    /**
+     * Creates the bars shown above the character. Called once, the ratios are set by {@link #updateBarDto}.
+     *
+     * @return the bars of the character
+     */
+    protected BarVisualDto[] createBarDto() {
         return new BarVisualDto[] {
-                new BarVisualDto("health", this.health / (float) this.maxHealth)
+                new BarVisualDto(BarStyle.HEALTH, 1f)
         };
     }
 
-    public void renderBar(ShapeRenderer shapeRenderer) {
-        BarVisualDto[] barDto = getBarDto();
+    /**
+     * Updates the ratios of the bars created by {@link #createBarDto} to the current state of the character.
+     *
+     * @param bars the bars of the character
+     */
+    protected void updateBarDto(BarVisualDto[] bars) {
+        bars[0].ratio = this.health / (float) this.maxHealth;
+    }
 
-        // get self position
-        Vector2 selfPosition = new Vector2(this.sprite.getX(), this.sprite.getY());
-        float spriteWidth = this.sprite.getWidth();
-        float spriteHeight = this.sprite.getHeight();
+    protected BarVisualDto[] getBarDto() {
+        if (bars == null) {
+            bars = createBarDto();
+        }
+        updateBarDto(bars);
+        return bars;
+    }
+
+    /**
+     * Remembers the current position as the position at the start of a simulation step.
+     */
+    public void savePreviousPosition() {
+        this.previousX = this.x;
+        this.previousY = this.y;
+    }
+
+    /**
+     * Queues the character and its bars at the position interpolated between
+     * the last two simulation steps.
+     *
+     * @param renderQueue queue of the current frame
+     * @param alpha progress of the current simulation step, between 0 and 1
+     */
+    public void render(RenderQueue renderQueue, float alpha) {
+        float renderX = this.previousX + (this.x - this.previousX) * alpha;
+        float renderY = this.previousY + (this.y - this.previousY) * alpha;
+
+        renderQueue.sprite(RenderLayer.ENTITIES, getSprite(), renderX, renderY);
+        renderBar(renderQueue, renderX, renderY);
+    }
+
+    /**
+     * Queues the bars (health, armor, ...) shown above the character.
+     *
+     * @param renderQueue queue of the current frame
+     * @param selfX rendered x position of the character
+     * @param selfY rendered y position of the character
+     */
+    public void renderBar(RenderQueue renderQueue, float selfX, float selfY) {
+        BarVisualDto[] barDto = getBarDto();
 
-        shapeRenderer.begin(ShapeRenderer.ShapeType.Filled);
         for (BarVisualDto bar : barDto) {
             // Calculate the bar position
-            float x = (float) selfPosition.x + (spriteWidth / 2f) - (bar.barWidth /2f);
-            float y = (float) selfPosition.y + spriteHeight + (bar.order * bar.padding);
+            float barX = selfX + (this.width / 2f) - (bar.barWidth /2f);
+            float barY = selfY + this.height + (bar.order * bar.padding);
 
-            shapeRenderer.setColor(bar.color);
-            shapeRenderer.rect(x, y, bar.barWidth * bar.ratio, bar.barHeight);
+            renderQueue.rect(RenderLayer.ENTITIES, ShapeRenderer.ShapeType.Filled, bar.color,
+                    barX, barY, bar.barWidth * bar.ratio, bar.barHeight);
         }
-        shapeRenderer.end();
     }
 
     public void setPosition(float x, float y) {
-        sprite.setPosition(x, y);
+        this.x = x;
+        this.y = y;
+        // Placing the character is not a movement, it is not interpolated
+        savePreviousPosition();
     }
 }
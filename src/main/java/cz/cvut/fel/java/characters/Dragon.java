@@ -1,13 +1,14 @@
 package cz.cvut.fel.java.characters;
 
-import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.Color;
-import com.badlogic.gdx.graphics.Texture;
-import com.badlogic.gdx.graphics.g2d.Sprite;
 import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
 import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.math.Vector2;
-import cz.cvut.fel.java.dto.BarVisualDto;
+import cz.cvut.fel.java.logging.GameEvent;
+import cz.cvut.fel.java.logging.GameLog;
+import cz.cvut.fel.java.rendering.RenderLayer;
+import cz.cvut.fel.java.rendering.RenderQueue;
+import cz.cvut.fel.java.textures.CharacterAtlas;
 
 import java.util.logging.Logger;
 
@@ -26,38 +27,49 @@ public class Dragon extends Character {
     private final int attackDamage = 30;
     private Rectangle attackSquare;
 
+    /**
+     * Reusable vector for the position of the player.
+     */
+    private final Vector2 playerPosition = new Vector2();
+
     private static final Logger logger = Logger.getLogger(Dragon.class.getName());
 
 
     public Dragon() {
+        super(CharacterAtlas.indexOf(DRAGON_STAND_DOWN));
+
         // TODO - health
         this.health = 150;
         this.maxHealth = 500;
-
-        this.texture = new Texture(DRAGON_STAND_DOWN);
-        this.sprite = new Sprite(texture);
     }
 
-    public void attack(Player player) {
+    /**
+     * Advances the dragon's attack by one simulation step. The dragon marks the player's
+     * position with an attack square and hits the player if they are still in it after a while.
+     *
+     * @param player the attacked player
+     * @param delta duration of the simulation step in seconds
+     */
+    public void attack(Player player, float delta) {
         if ((timeBetweenAttacks > betweenAttacksCooldown) && !attackPrepared) {
-            prepareAttack(player.getPosition());
+            prepareAttack(player.getPosition(playerPosition));
         } else {
-            timeBetweenAttacks += Gdx.graphics.getDeltaTime();
+            timeBetweenAttacks += delta;
         }
 
         if (attackPrepared) {
             if (timeToAttack > timeToAttackCooldown) {
-                logger.info("Dragon is attacking the player");
+                GameLog.log(GameEvent.DRAGON_ATTACKING);
                 attackPlayer(player);
             } else {
-                timeToAttack += Gdx.graphics.getDeltaTime();
+                timeToAttack += delta;
             }
         }
     }
 
 
     private void prepareAttack(Vector2 playerPosition) {
-        logger.info("Dragon is preparing to attack");
+        GameLog.log(GameEvent.DRAGON_PREPARING, (int) playerPosition.x, (int) playerPosition.y);
         defineAttackSquare(playerPosition);
         timeToAttack = 0;
         attackPrepared = true;
@@ -65,7 +77,7 @@ public class Dragon extends Character {
 
     private void attackPlayer(Player player) {
         if (playerInAttackSquare(player)) {
-            logger.info("Dragon has attacked the player");
+            GameLog.log(GameEvent.DRAGON_HIT, attackDamage);
             player.takeDamage(attackDamage);
             attackSquare = null;
         }
@@ -74,8 +86,6 @@ public class Dragon extends Character {
     }
 
     private void defineAttackSquare(Vector2 playerPosition) {
-        logger.info("Defining attack square");
-
         float squareSize = 64;
         float x = playerPosition.x - squareSize / 2f;
         float y = playerPosition.y - squareSize / 2f;
@@ -84,24 +94,14 @@ public class Dragon extends Character {
 
     // 🔽 Optional helper method
     private boolean playerInAttackSquare(Player player) {
-        return attackSquare != null && attackSquare.contains(player.getPosition());
+        return attackSquare != null && attackSquare.contains(player.getPosition(playerPosition));
     }
 
-    public void renderAttackSquare(ShapeRenderer shapeRenderer) {
+    public void renderAttackSquare(RenderQueue renderQueue) {
         if (attackPrepared) {
-            shapeRenderer.begin(ShapeRenderer.ShapeType.Filled);
-            shapeRenderer.setColor(Color.RED);
-
-            shapeRenderer.rect(attackSquare.x, attackSquare.y, attackSquare.width, attackSquare.height);
-            shapeRenderer.end();
+            renderQueue.rect(RenderLayer.ENTITIES, ShapeRenderer.ShapeType.Filled, Color.RED,
+                    attackSquare.x, attackSquare.y, attackSquare.width, attackSquare.height);
         }
     }
 
-    @Override
-    protected BarVisualDto[] getBarDto() {
-        return new BarVisualDto[] {
-                new BarVisualDto("health", this.health / (float) this.maxHealth),
-        };
-    }
-
 }
@@ -1,24 +1,47 @@
 package cz.cvut.fel.java.characters;
 
-import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
-import com.badlogic.gdx.math.Vector2;
-import com.fasterxml.jackson.databind.JsonNode;
-import cz.cvut.fel.java.dto.MovementDto;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.IntArray;
+import cz.cvut.fel.java.dto.BarStyle;
+import cz.cvut.fel.java.dto.BarVisualDto;
+import cz.cvut.fel.java.logging.GameEvent;
+import cz.cvut.fel.java.logging.GameLog;
+import cz.cvut.fel.java.profiling.FrameProfiler;
+import cz.cvut.fel.java.profiling.ProfileStage;
+import cz.cvut.fel.java.rendering.RenderLayer;
+import cz.cvut.fel.java.rendering.RenderQueue;
+import cz.cvut.fel.java.spatial.SpatialHashGrid;
+import cz.cvut.fel.java.textures.CharacterAtlas;
 
 import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
 import java.util.logging.Logger;
 
 /**
  * Represents a collection of enemies in the game. This class manages movement, attack, and rendering of the enemies.
+ *
+ * <p>The state of the enemies is kept in parallel primitive columns indexed by the enemy index
+ * (position, velocity, health, attack cooldown, type id and shown atlas region). The stats shared
+ * by all enemies of one type are kept in one {@link Enemy} per type. Killed enemies are removed by
+ * moving the last enemy into their place, so the indices of the other enemies may change on removal.
+ * Sprites are not stored per enemy, the atlas regions are only bound when the enemies are rendered.
+ *
+ * <p>Enemy positions are indexed by a {@link SpatialHashGrid} over the bounds of the room, so range
+ * queries (the player's weapon, enemy attacks) only check the enemies near the queried position.
  */
 public class Enemies {
     /**
-     * List holding all current enemies in the game.
+     * Initial capacity of the columns.
      */
-    public ArrayList<Enemy> currentEnemies;
+    private static final int INITIAL_CAPACITY = 8;
+
+    /**
+     * Size of the cells of the spatial grid. The range queries cover as many cells as the longest weapon
+     * range needs, so the size only affects the speed of the queries.
+     */
+    private static final float GRID_CELL_SIZE = 32f;
 
     /**
      * Logger for logging messages related to enemy actions.
@@ -26,118 +49,451 @@ public class Enemies {
     private static final Logger logger = Logger.getLogger(Enemies.class.getName());
 
     /**
-     * Moves all enemies towards the player's position.
+     * Types of the enemies in this collection, the type id of an enemy is an index to this list.
+     */
+    private final ArrayList<Enemy> types = new ArrayList<>();
+
+    /**
+     * Number of enemies in the collection.
+     */
+    private int size;
+
+    // Columns of the enemy state
+    float[] x = new float[INITIAL_CAPACITY];
+    float[] y = new float[INITIAL_CAPACITY];
+    float[] previousX = new float[INITIAL_CAPACITY];
+    float[] previousY = new float[INITIAL_CAPACITY];
+    float[] velocityX = new float[INITIAL_CAPACITY];
+    float[] velocityY = new float[INITIAL_CAPACITY];
+    int[] health = new int[INITIAL_CAPACITY];
+    float[] lastAttackTime = new float[INITIAL_CAPACITY];
+    int[] typeId = new int[INITIAL_CAPACITY];
+    int[] region = new int[INITIAL_CAPACITY];
+
+    /**
+     * Simulated time of this collection in seconds, attack cooldowns are measured against it.
+     */
+    private float time = 0f;
+
+    /**
+     * Largest weapon range of all enemy types in the collection.
+     */
+    private float maxRange = 0f;
+
+    /**
+     * Spatial index of the enemy positions.
+     */
+    private final SpatialHashGrid grid;
+
+    /**
+     * Flag indicating that enemies moved, spawned or were removed since the grid was rebuilt.
+     */
+    private boolean gridDirty = true;
+
+    /**
+     * Reusable buffer for the results of grid queries.
+     */
+    private final IntArray nearby = new IntArray();
+
+    /**
+     * Health bar style shared by all enemies.
+     */
+    private final BarVisualDto healthBar = new BarVisualDto(BarStyle.HEALTH, 1f);
+
+    /**
+     * Flag indicating whether the character atlas was acquired for rendering.
+     */
+    private boolean atlasAcquired = false;
+
+    /**
+     * Creates an empty collection of enemies placed in the given room bounds.
+     *
+     * @param bounds The bounds of the room, covered by the spatial grid.
+     */
+    public Enemies(Rectangle bounds) {
+        this.grid = new SpatialHashGrid(bounds, GRID_CELL_SIZE);
+    }
+
+    /**
+     * Creates an empty collection of enemies that are not placed in a room.
+     * Its spatial grid has a single cell.
+     */
+    public Enemies() {
+        this(new Rectangle(0, 0, GRID_CELL_SIZE, GRID_CELL_SIZE));
+    }
+
+    /**
+     * Moves all enemies towards the player and makes them attack the player if they are in range
+     * and their attack cooldown has passed. The update finishes within the simulation step,
+     * larger groups of enemies are moved in parallel by the {@link EnemyUpdateStage}.
+     * Only the enemies in the grid cells around the player are checked for attacks.
+     *
+     * @param player The player the enemies move to and attack.
+     * @param delta Duration of the simulation step in seconds.
+     */
+    public void updateEnemies(Player player, float delta) {
+        float playerX = player.getX();
+        float playerY = player.getY();
+
+        time += delta;
+        long start = FrameProfiler.start();
+        EnemyUpdateStage.update(this, playerX, playerY, delta);
+        gridDirty = true;
+        FrameProfiler.stop(ProfileStage.ENEMY_MOVE, start);
+
+        start = FrameProfiler.start();
+        attackPlayerInRange(player, playerX, playerY);
+        FrameProfiler.stop(ProfileStage.ENEMY_ATTACK, start);
+    }
+
+    /**
+     * Makes the enemies in range of the player attack if their attack cooldown has passed.
+     * Only the enemies in the grid cells around the player are checked.
      *
-     * @param playerPosition The current position of the player to which enemies will move.
-     */
-    public void moveEnemies(Vector2 playerPosition) {
-        for (Enemy enemy: currentEnemies) {
-            // Create a virtual thread for each enemy to calculate its movement
-            Thread.ofVirtual().start(() -> {
-                // Calculate the movement direction towards the player
-                MovementDto movementDetail = enemy.calculateMove(playerPosition);
-                // Move the enemy using the calculated movement details
-                enemy.move(movementDetail);
-            });
+     * @param player the attacked player
+     * @param playerX x position of the player
+     * @param playerY y position of the player
+     */
+    void attackPlayerInRange(Player player, float playerX, float playerY) {
+        int damage = 0;
+        int attackers = 0;
+        nearby.clear();
+        queryInRange(playerX, playerY, maxRange, nearby);
+        for (int n = 0; n < nearby.size; n++) {
+            int hit = attackPlayer(nearby.get(n), playerX, playerY);
+            if (hit > 0) {
+                damage += hit;
+                attackers++;
+            }
+        }
+
+        if (damage > 0) {
+            // All hits of the step are applied at once, armor absorbs them the same way as one by one
+            player.takeDamage(damage);
+            GameLog.log(GameEvent.PLAYER_HIT_BY_ENEMIES, damage, attackers);
         }
     }
 
     /**
-     * Makes enemies attack the player if they are in range and the attack cooldown has passed.
+     * Moves one enemy towards the player. Only the columns of the given enemy are modified,
+     * so different enemies can be moved from different threads.
      *
-     * @param player The player who might be attacked by the enemies.
-     */
-    public void enemiesAttack(Player player) {
-        // Get the player's position for the enemies to calculate their attack range.
-        Vector2 playerPosition = player.getPosition();
-        // List to hold all threads for the attacks.
-        List<Thread> threads = new ArrayList<>();
-
-        for (Enemy enemy: currentEnemies) {
-            Thread thread = Thread.ofVirtual().unstarted(() -> {
-                // Create a new virtual thread to handle each enemy's attack.
-                if (enemy.enemyCanAttack(playerPosition)) {
-                    logger.info("Enemy " + enemy.type + " is attacking the player!");
-                    // Get the enemy's position to calculate the direction of attack.
-                    Vector2 selfPosition = enemy.getPosition();
-
-                    // Calculate the direction of the attack from the enemy to the player.
-                    Vector2 direction = selfPosition.cpy().sub(playerPosition).nor();
-
-                    // Use synchronized block to ensure thread safety when modifying player health.
-                    synchronized(player) {
-                        // Player takes damage from the enemy's attack.
-                        player.takeDamage(enemy.equippedWeapon.getDamage());
-                        logger.info("Player took damage from enemy " + enemy.type + "\nplayer stats: " + player +"\n");
-                    }
-
-                    // Update the enemy's attack texture based on the attack direction.
-                    Gdx.app.postRunnable(() -> {
-                        enemy.updateAttackTexture(direction);
-                    });
-
-                } else {
-                    // Update the attack cooldown for the enemy if they cannot attack yet.
-                    enemy.updateAttackCooldown();
+     * @param index index of the enemy
+     * @param playerX x position of the player
+     * @param playerY y position of the player
+     * @param delta duration of the simulation step in seconds
+     */
+    void moveEnemy(int index, float playerX, float playerY, float delta) {
+        Enemy type = types.get(typeId[index]);
+
+        // Calculate the direction and distance to the player
+        float directionX = playerX - x[index];
+        float directionY = playerY - y[index];
+        float distance = (float) Math.sqrt(directionX * directionX + directionY * directionY);
+        float range = type.equippedWeapon.getRange();
+
+        // Move towards the player if they are outside the attack range
+        if (distance > range) {
+            float deltaX = directionX / distance * type.speed;
+            float deltaY = directionY / distance * type.speed;
+
+            // Determine the region based on the movement direction
+            if (Math.abs(deltaX) > Math.abs(deltaY)) {
+                region[index] = (directionX > 0) ? type.WALK_RIGHT : type.WALK_LEFT;
+            } else {
+                region[index] = (directionY > 0) ? type.WALK_UP : type.WALK_DOWN;
             }
-        });
-        threads.add(thread);
-        thread.start();
+
+            velocityX[index] = deltaX;
+            velocityY[index] = deltaY;
+            x[index] += deltaX * delta;
+            y[index] += deltaY * delta;
+        } else {
+            // If the player is within attack range, stand
+            region[index] = type.STAND_DOWN;
+            velocityX[index] = 0;
+            velocityY[index] = 0;
+        }
+
     }
 
-    // wait for all threads to finish before proceeding
-        for (Thread thread: threads) {
-        try {
-            thread.join();
-        } catch (InterruptedException e) {
-            e.printStackTrace();
+    /**
+     * Lets one enemy near the player attack if the player is within its weapon range
+     * and its attack cooldown has passed.
+     *
+     * @param index index of the enemy
+     * @param playerX x position of the player
+     * @param playerY y position of the player
+     * @return damage dealt to the player
+     */
+    private int attackPlayer(int index, float playerX, float playerY) {
+        Enemy type = types.get(typeId[index]);
+        float range = type.equippedWeapon.getRange();
+
+        float directionX = playerX - x[index];
+        float directionY = playerY - y[index];
+        if (directionX * directionX + directionY * directionY < range * range
+                && time - lastAttackTime[index] >= type.attackCooldown) {
+            lastAttackTime[index] = time;
+            // TODO - temporary solution, the attack is always shown facing down
+            region[index] = type.ATTACK_DOWN;
+            return type.equippedWeapon.getDamage();
         }
+        return 0;
     }
-}
 
     /**
-     * Adds a new enemy to the list of current enemies.
+     * Adds the indices of all enemies closer than the given range to the given position.
+     * Only the enemies in the grid cells around the position are checked.
      *
-     * @param enemy The enemy to add to the list of current enemies.
+     * @param centerX x coordinate of the position
+     * @param centerY y coordinate of the position
+     * @param range the range
+     * @param result array the indices are added to
      */
-    public void addEnemy(Enemy enemy) {
-        if (currentEnemies == null) {
-            currentEnemies = new ArrayList<>();
+    public void queryInRange(float centerX, float centerY, float range, IntArray result) {
+        if (gridDirty) {
+            grid.rebuild(x, y, size);
+            gridDirty = false;
         }
-        currentEnemies.add(enemy);
+
+        int from = result.size;
+        grid.query(centerX, centerY, range, result);
+
+        // Keep only the candidates within the exact range
+        int kept = from;
+        for (int n = from; n < result.size; n++) {
+            int index = result.get(n);
+            float distanceX = x[index] - centerX;
+            float distanceY = y[index] - centerY;
+            if (distanceX * distanceX + distanceY * distanceY < range * range) {
+                result.set(kept++, index);
+            }
+        }
+        result.size = kept;
+    }
+
+    /**
+     * Adds a new enemy of the given type at the given position.
+     *
+     * @param type The type of the enemy ("orc" or "goblin").
+     * @param posX The x position of the enemy.
+     * @param posY The y position of the enemy.
+     * @return The index of the new enemy.
+     */
+    public int spawn(String type, float posX, float posY) {
+        return spawn(EnemyTypes.get(type), posX, posY);
     }
 
     /**
-     * Renders all enemies on the screen using the provided SpriteBatch.
+     * Adds a new enemy of the given type at the given position.
      *
-     * @param batch The SpriteBatch used to draw the enemies.
-     */
-    public void renderEnemies(SpriteBatch batch, ShapeRenderer shapeRenderer) {
-        for (Enemy enemy: currentEnemies) {
-            enemy.getSprite().draw(batch);
-            batch.end();
-            enemy.renderBar(shapeRenderer);
-            batch.begin();
+     * @param enemyType The type of the enemy.
+     * @param posX The x position of the enemy.
+     * @param posY The y position of the enemy.
+     * @return The index of the new enemy.
+     */
+    public int spawn(Enemy enemyType, float posX, float posY) {
+        if (size == x.length) {
+            grow();
         }
+
+        int id = typeIdOf(enemyType);
+
+        int index = size++;
+        x[index] = posX;
+        y[index] = posY;
+        previousX[index] = posX;
+        previousY[index] = posY;
+        velocityX[index] = 0;
+        velocityY[index] = 0;
+        health[index] = enemyType.maxHealth;
+        lastAttackTime[index] = time;
+        typeId[index] = id;
+        region[index] = enemyType.STAND_DOWN;
+        gridDirty = true;
+        return index;
     }
 
     /**
-     * Disposes of all enemies' resources (such as textures).
+     * Removes the enemy with the given index. The last enemy is moved to its index.
+     *
+     * @param index The index of the removed enemy.
      */
-    public void dispose() {
-        for (Enemy enemy: currentEnemies) {
-            enemy.dispose();
+    public void removeEnemy(int index) {
+        int last = --size;
+        if (index != last) {
+            x[index] = x[last];
+            y[index] = y[last];
+            previousX[index] = previousX[last];
+            previousY[index] = previousY[last];
+            velocityX[index] = velocityX[last];
+            velocityY[index] = velocityY[last];
+            health[index] = health[last];
+            lastAttackTime[index] = lastAttackTime[last];
+            typeId[index] = typeId[last];
+            region[index] = region[last];
+        }
+        gridDirty = true;
+    }
+
+    /**
+     * Deals damage to the enemy with the given index.
+     *
+     * @param index The index of the enemy.
+     * @param damage The amount of damage.
+     * @return true if the enemy is still alive, false if it is dead
+     */
+    public boolean damageEnemy(int index, int damage) {
+        health[index] -= damage;
+        if (health[index] < 0) {
+            health[index] = 0;
         }
+        return health[index] > 0;
+    }
+
+    /**
+     * Sets the health of the enemy with the given index restored from a save.
+     *
+     * @param index The index of the enemy.
+     * @param health The saved health.
+     */
+    public void restoreHealth(int index, int health) {
+        this.health[index] = health;
+    }
+
+    /**
+     * Removes all enemies.
+     */
+    public void clear() {
+        size = 0;
+        gridDirty = true;
+    }
+
+    /**
+     * @return The number of enemies in the collection.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return true if there are no enemies left
+     */
+    public boolean isEmpty() {
+        return size == 0;
     }
 
+    public float getX(int index) {
+        return x[index];
+    }
 
-    public static Enemies loadEnemies(JsonNode enemiesData) {
-        Enemies enemies = new Enemies();
-        for (JsonNode enemyData : enemiesData) {
-            String type = enemyData.get("type").asText();
-            Enemy enemy = new Enemy(type);
-            enemies.addEnemy(enemy);
+    public float getY(int index) {
+        return y[index];
+    }
+
+    public int getHealth(int index) {
+        return health[index];
+    }
+
+    /**
+     * @param index The index of the enemy.
+     * @return The reward given to the player for defeating the enemy.
+     */
+    public int getReward(int index) {
+        return types.get(typeId[index]).reward;
+    }
+
+    /**
+     * @param index The index of the enemy.
+     * @return The type of the enemy ("orc", "goblin").
+     */
+    public String getType(int index) {
+        return types.get(typeId[index]).type;
+    }
+
+    /**
+     * Remembers the positions of all enemies at the start of a simulation step.
+     */
+    public void savePreviousPositions() {
+        System.arraycopy(x, 0, previousX, 0, size);
+        System.arraycopy(y, 0, previousY, 0, size);
+    }
+
+    /**
+     * Queues all enemies and their health bars for rendering.
+     * The atlas region of every enemy is bound only here.
+     *
+     * @param renderQueue The queue of the current frame.
+     * @param alpha Progress of the current simulation step, between 0 and 1.
+     */
+    public void renderEnemies(RenderQueue renderQueue, float alpha) {
+        if (!atlasAcquired) {
+            CharacterAtlas.acquire();
+            atlasAcquired = true;
         }
-        return enemies;
+
+        for (int i = 0; i < size; i++) {
+            Enemy type = types.get(typeId[i]);
+
+            // Enemies are as large as their standing pose
+            TextureRegion standRegion = CharacterAtlas.getRegion(type.STAND_DOWN);
+            float width = standRegion.getRegionWidth();
+            float height = standRegion.getRegionHeight();
+
+            float renderX = previousX[i] + (x[i] - previousX[i]) * alpha;
+            float renderY = previousY[i] + (y[i] - previousY[i]) * alpha;
+
+            renderQueue.region(RenderLayer.ENTITIES, CharacterAtlas.getRegion(region[i]), renderX, renderY, width, height);
+
+            // Calculate the health bar position
+            float barX = renderX + (width / 2f) - (healthBar.barWidth / 2f);
+            float barY = renderY + height + (healthBar.order * healthBar.padding);
+            float ratio = health[i] / (float) type.maxHealth;
+
+            renderQueue.rect(RenderLayer.ENTITIES, ShapeRenderer.ShapeType.Filled, healthBar.color,
+                    barX, barY, healthBar.barWidth * ratio, healthBar.barHeight);
+        }
+    }
+
+    /**
+     * Releases the character atlas if it was acquired for rendering.
+     */
+    public void dispose() {
+        if (atlasAcquired) {
+            CharacterAtlas.release();
+            atlasAcquired = false;
+        }
+    }
+
+    /**
+     * Returns the type id of the given enemy type, registering the type when it is used for the first time.
+     */
+    private int typeIdOf(Enemy enemyType) {
+        for (int i = 0; i < types.size(); i++) {
+            if (types.get(i) == enemyType) {
+                return i;
+            }
+        }
+        types.add(enemyType);
+        maxRange = Math.max(maxRange, enemyType.equippedWeapon.getRange());
+        return types.size() - 1;
+    }
+
+    /**
+     * Doubles the capacity of all columns.
+     */
+    private void grow() {
+        int capacity = x.length * 2;
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        previousX = Arrays.copyOf(previousX, capacity);
+        previousY = Arrays.copyOf(previousY, capacity);
+        velocityX = Arrays.copyOf(velocityX, capacity);
+        velocityY = Arrays.copyOf(velocityY, capacity);
+        health = Arrays.copyOf(health, capacity);
+        lastAttackTime = Arrays.copyOf(lastAttackTime, capacity);
+        typeId = Arrays.copyOf(typeId, capacity);
+        region = Arrays.copyOf(region, capacity);
     }
 }
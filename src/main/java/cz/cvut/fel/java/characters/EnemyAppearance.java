@@ -0,0 +1,41 @@
+package cz.cvut.fel.java.characters;
+
+import cz.cvut.fel.java.textures.CharacterAtlas;
+
+import static cz.cvut.fel.java.textureconstants.GoblinTextures.*;
+import static cz.cvut.fel.java.textureconstants.OrcTextures.*;
+
+/**
+ * Look of an enemy, the atlas regions of all its poses. The regions are resolved once
+ * when the class is loaded, enemy types only refer to one of the constants.
+ */
+public enum EnemyAppearance {
+    ORC(ORC_WALKING_UP, ORC_WALKING_DOWN, ORC_WALKING_LEFT, ORC_WALKING_RIGHT, ORC_STAND_DOWN,
+            ORC_ATTACK_DOWN, ORC_ATTACK_UP, ORC_ATTACK_LEFT, ORC_ATTACK_RIGHT),
+    GOBLIN(GOBLIN_WALKING_UP, GOBLIN_WALKING_DOWN, GOBLIN_WALKING_LEFT, GOBLIN_WALKING_RIGHT, GOBLIN_STAND_DOWN,
+            GOBLIN_ATTACK_DOWN, GOBLIN_ATTACK_UP, GOBLIN_ATTACK_LEFT, GOBLIN_ATTACK_RIGHT);
+
+    // Atlas regions of the poses
+    final int walkUp;
+    final int walkDown;
+    final int walkLeft;
+    final int walkRight;
+    final int standDown;
+    final int attackDown;
+    final int attackUp;
+    final int attackLeft;
+    final int attackRight;
+
+    EnemyAppearance(String walkUp, String walkDown, String walkLeft, String walkRight, String standDown,
+                    String attackDown, String attackUp, String attackLeft, String attackRight) {
+        this.walkUp = CharacterAtlas.indexOf(walkUp);
+        this.walkDown = CharacterAtlas.indexOf(walkDown);
+        this.walkLeft = CharacterAtlas.indexOf(walkLeft);
+        this.walkRight = CharacterAtlas.indexOf(walkRight);
+        this.standDown = CharacterAtlas.indexOf(standDown);
+        this.attackDown = CharacterAtlas.indexOf(attackDown);
+        this.attackUp = CharacterAtlas.indexOf(attackUp);
+        this.attackLeft = CharacterAtlas.indexOf(attackLeft);
+        this.attackRight = CharacterAtlas.indexOf(attackRight);
+    }
+}
@@ -0,0 +1,41 @@
+package cz.cvut.fel.java.characters;
+
+import cz.cvut.fel.java.catalog.ArchetypeCatalog;
+
+import java.util.HashMap;
+
+/**
+ * Registry of all enemy types by their name. The types are loaded once from the {@link ArchetypeCatalog},
+ * enemies and levels only refer to them, so adding a type does not change the code using the enemies.
+ */
+public final class EnemyTypes {
+    private static final HashMap<String, Enemy> TYPES = new HashMap<>();
+
+    private EnemyTypes() {}
+
+    /**
+     * Adds an enemy type to the registry, replacing a type with the same name.
+     *
+     * @param type the enemy type
+     */
+    public static void register(Enemy type) {
+        TYPES.put(type.type, type);
+    }
+
+    /**
+     * Returns the enemy type with the given name.
+     *
+     * @param name name of the type ("orc", "goblin")
+     * @return the enemy type
+     * @throws IllegalArgumentException if there is no type with the name
+     */
+    public static Enemy get(String name) {
+        ArchetypeCatalog.ensureLoaded();
+
+        Enemy type = TYPES.get(name);
+        if (type == null) {
+            throw new IllegalArgumentException("Unknown enemy type: " + name);
+        }
+        return type;
+    }
+}
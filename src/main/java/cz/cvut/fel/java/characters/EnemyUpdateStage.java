@@ -0,0 +1,92 @@
+package cz.cvut.fel.java.characters;
+
+import java.io.Serial;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Simulation stage that moves all enemies of a room in one pass.
+ * Small groups of enemies are moved inline on the calling thread, larger groups are split
+ * into chunks of enemy indices processed in parallel on the common fork-join pool. The stage
+ * always finishes before it returns, so all enemy positions are up to date within the simulation step.
+ *
+ * <p>Every enemy is moved by exactly one thread. Attacks are decided afterwards by {@link Enemies}
+ * on the calling thread, only for the enemies near the player.
+ */
+class EnemyUpdateStage {
+    /**
+     * Number of enemies up to which the stage runs inline, forking costs more than the update itself.
+     */
+    static final int INLINE_THRESHOLD = 256;
+
+    /**
+     * Number of enemies moved by one task of the fork-join pool.
+     */
+    static final int CHUNK_SIZE = 128;
+
+    private EnemyUpdateStage() {}
+
+    /**
+     * Moves the enemies towards the player.
+     *
+     * @param enemies enemies of the room
+     * @param playerX x position of the player
+     * @param playerY y position of the player
+     * @param delta duration of the simulation step in seconds
+     */
+    static void update(Enemies enemies, float playerX, float playerY, float delta) {
+        if (enemies.size() <= INLINE_THRESHOLD) {
+            moveRange(enemies, 0, enemies.size(), playerX, playerY, delta);
+            return;
+        }
+        ForkJoinPool.commonPool().invoke(new ChunkTask(enemies, 0, enemies.size(), playerX, playerY, delta));
+    }
+
+    /**
+     * Moves the enemies with indices from {@code from} (inclusive) to {@code to} (exclusive).
+     */
+    private static void moveRange(Enemies enemies, int from, int to, float playerX, float playerY, float delta) {
+        for (int i = from; i < to; i++) {
+            enemies.moveEnemy(i, playerX, playerY, delta);
+        }
+    }
+
+    /**
+     * Task moving a chunk of enemies, splitting it in halves while it is larger than {@link #CHUNK_SIZE}.
+     */
+    private static class ChunkTask extends RecursiveAction {
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        // The tasks are never serialized
+        private final transient Enemies enemies;
+        private final int from;
+        private final int to;
+        private final float playerX;
+        private final float playerY;
+        private final float delta;
+
+        private ChunkTask(Enemies enemies, int from, int to, float playerX, float playerY, float delta) {
+            this.enemies = enemies;
+            this.from = from;
+            this.to = to;
+            this.playerX = playerX;
+            this.playerY = playerY;
+            this.delta = delta;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= CHUNK_SIZE) {
+                moveRange(enemies, from, to, playerX, playerY, delta);
+                return;
+            }
+
+            int middle = (from + to) >>> 1;
+            invokeAll(
+                    new ChunkTask(enemies, from, middle, playerX, playerY, delta),
+                    new ChunkTask(enemies, middle, to, playerX, playerY, delta)
+            );
+        }
+    }
+}
@@ -1,20 +1,22 @@
 package cz.cvut.fel.java.characters;
 
-import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.graphics.Texture;
-import com.badlogic.gdx.graphics.g2d.Sprite;
 import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.IntArray;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import cz.cvut.fel.java.Rooms.Doorway;
 import cz.cvut.fel.java.Rooms.Room;
+import cz.cvut.fel.java.Rooms.RoomSide;
 import cz.cvut.fel.java.dto.AttackDto;
+import cz.cvut.fel.java.dto.BarStyle;
 import cz.cvut.fel.java.dto.BarVisualDto;
-import cz.cvut.fel.java.dto.MovementDto;
 import cz.cvut.fel.java.dto.RoomMovementDto;
+import cz.cvut.fel.java.logging.GameEvent;
+import cz.cvut.fel.java.logging.GameLog;
 import cz.cvut.fel.java.objects.weapons.Weapon;
+import cz.cvut.fel.java.textures.CharacterAtlas;
+import lombok.Getter;
 
-import java.util.ArrayList;
-import java.util.List;
 import java.util.logging.Logger;
 
 import static cz.cvut.fel.java.textureconstants.PlayerTextures.*;
@@ -27,10 +29,29 @@ public class Player extends Character {
 
     private static final Logger logger = Logger.getLogger(Player.class.getName());
 
+    // Stats of a player in a new game
+    private static final int DEFAULT_HEALTH = 100;
+    private static final float DEFAULT_STAMINA = 100;
+    private static final int DEFAULT_BALANCE = 0;
+    private static final int DEFAULT_ARMOR = 100;
+
+    // Movement and attack regions of the character atlas for the player
+    private static final int STAND_DOWN = CharacterAtlas.indexOf(PLAYER_STAND_DOWN);
+
+    private static final int WALK_UP = CharacterAtlas.indexOf(PLAYER_WALKING_UP);
+    private static final int WALK_DOWN = CharacterAtlas.indexOf(PLAYER_WALKING_DOWN);
+    private static final int WALK_LEFT = CharacterAtlas.indexOf(PLAYER_WALKING_LEFT);
+    private static final int WALK_RIGHT = CharacterAtlas.indexOf(PLAYER_WALKING_RIGHT);
+
+    private static final int ATTACK_DOWN = CharacterAtlas.indexOf(PLAYER_ATTACK_DOWN);
+    private static final int ATTACK_UP = CharacterAtlas.indexOf(PLAYER_ATTACK_UP);
+    private static final int ATTACK_LEFT = CharacterAtlas.indexOf(PLAYER_ATTACK_LEFT);
+    private static final int ATTACK_RIGHT = CharacterAtlas.indexOf(PLAYER_ATTACK_RIGHT);
+
     /**
      * The player's current balance, which could be used for purchasing items.
      */
-    private int balance;
+    @Getter private int balance;
 
     /**
      * The maximum stamina the player can have.
@@ -40,7 +61,7 @@ public class Player extends Character {
     /**
      * The current stamina of the player.
      */
-    private float stamina;
+    @Getter private float stamina;
 
     /**
      * The maximum armor the player can have
@@ -50,9 +71,27 @@ public class Player extends Character {
     /**
      * The current armor of the player
      */
-    private int armor;
+    @Getter private int armor;
 
+    /**
+     * Reusable buffer for the indices of the enemies near the player.
+     */
+    private final IntArray nearbyEnemies = new IntArray();
 
+    /**
+     * Reusable result of the movement checks, valid until the next movement of the player.
+     */
+    private final RoomMovementDto roomMovement = new RoomMovementDto(false, false, null);
+
+    /**
+     * Reusable detail of the player's attack.
+     */
+    private final AttackDto attack = new AttackDto(new Vector2(), -1);
+
+    /**
+     * Reusable vector for the position of the player.
+     */
+    private final Vector2 position = new Vector2();
 
     /**
      * Constructs a Player object with specified health, stamina, and balance.
@@ -63,6 +102,9 @@ public class Player extends Character {
      * @param balance the initial balance of the player
      */
     public Player(int health, float stamina, int balance, int armor) {
+        // Start in the default pose
+        super(STAND_DOWN);
+
         this.maxHealth = 100;
         this.maxStamina = 100;
         this.speed = 90f;
@@ -76,10 +118,6 @@ public class Player extends Character {
 
         // Equip the player with a sword by default
         this.equippedWeapon = new Weapon("sword");
-
-        // Set the default texture for the player
-        this.texture = new Texture(PLAYER_STAND_DOWN);
-        this.sprite = new Sprite(this.texture);
     }
 
     /**
@@ -89,7 +127,17 @@ public class Player extends Character {
      * @return a new default player
      */
     public static Player getDefaultPlayer() {
-        return new Player(100, 100, 0, 100);
+        return new Player(DEFAULT_HEALTH, DEFAULT_STAMINA, DEFAULT_BALANCE, DEFAULT_ARMOR);
+    }
+
+    /**
+     * Saves the state of a default player to a game save, without creating the player.
+     * Can be called on any thread.
+     *
+     * @param gameSave the JSON node representing the game save data
+     */
+    public static void saveDefaultPlayer(JsonNode gameSave) {
+        savePlayer(gameSave, DEFAULT_HEALTH, DEFAULT_STAMINA, DEFAULT_BALANCE, DEFAULT_ARMOR);
     }
 
     /**
@@ -98,12 +146,16 @@ public class Player extends Character {
      * @param gameSave the JSON node representing the game save data
      */
     public void savePlayer(JsonNode gameSave) {
+        savePlayer(gameSave, this.health, this.stamina, this.balance, this.armor);
+    }
+
+    private static void savePlayer(JsonNode gameSave, int health, float stamina, int balance, int armor) {
         ObjectNode playerSave = gameSave.with("player");
 
-        playerSave.put("health", this.health);
-        playerSave.put("stamina", this.stamina);
-        playerSave.put("balance", this.balance);
-        playerSave.put("armor", this.armor);
+        playerSave.put("health", health);
+        playerSave.put("stamina", stamina);
+        playerSave.put("balance", balance);
+        playerSave.put("armor", armor);
     }
 
     /**
@@ -123,10 +175,10 @@ public class Player extends Character {
 
     /**
      * Updates the player's stamina, regenerating it over time up to the maximum stamina.
+     *
+     * @param delta duration of the simulation step in seconds
      */
-    public void updateStamina() {
-        float delta = Gdx.graphics.getDeltaTime();
-
+    public void updateStamina(float delta) {
         // The amount of stamina to regenerate per second
         float staminaRegen = 10f;
 
@@ -148,16 +200,16 @@ public class Player extends Character {
      * Handles the player's attack action. The player uses stamina to attack enemies within range,
      * and rewards are granted for defeating enemies.
      *
-     * @param enemies the list of enemies currently in the game
+     * @param enemies the enemies currently in the room
      */
-    public void handleAttack(ArrayList<Enemy> enemies) {
+    public void handleAttack(Enemies enemies) {
         // Check if the player has enough stamina to attack
         if (this.stamina < this.equippedWeapon.getStaminaCost()) {
             return;
         }
 
         // TODO temporary only attack down
-        this.sprite.setTexture(new Texture(PLAYER_ATTACK_DOWN));
+        changeRegion(ATTACK_DOWN);
 
 /*        // Change to attack texture
         Vector2 attackerPosition = enemiesInRange.getFirst().enemyToAttack.getPosition();
@@ -168,7 +220,7 @@ public class Player extends Character {
         decreaseStamina(this.equippedWeapon.getStaminaCost());
 
         // Get the enemies in range
-        ArrayList<AttackDto> enemiesInRange = getEnemiesInRange(enemies);
+        IntArray enemiesInRange = getEnemiesInRange(enemies);
 
         // If no enemies are in range, return early
         if (enemiesInRange.isEmpty()) {
@@ -176,314 +228,227 @@ public class Player extends Character {
         }
 
         // Choose the first enemy in range
-        boolean enemyDead = attackEnemy(enemiesInRange.getFirst());
+        int target = enemiesInRange.first();
+        this.attack.enemyToAttack = target;
+        this.attack.direction.set(this.position).sub(enemies.getX(target), enemies.getY(target)).nor();
+        boolean enemyDead = attackEnemy(this.attack, enemies);
 
         if (enemyDead) {
+            int killedEnemy = target;
+
             // Get the reward for killing the enemy
-            this.balance += enemiesInRange.getFirst().enemyToAttack.reward;
+            this.balance += enemies.getReward(killedEnemy);
 
             // Remove the enemy from the game
-            enemiesInRange.getFirst().enemyToAttack.dispose();
-            enemies.remove(enemiesInRange.getFirst().enemyToAttack);
+            enemies.removeEnemy(killedEnemy);
         }
 
 
     }
 
     /**
-     * Returns a list of enemies within the player's attack range.
+     * Returns the indices of the enemies within the player's attack range.
+     * Only the enemies in the grid cells around the player are checked.
+     * The returned array is reused, it is valid until the next attack.
      *
-     * @param enemies the list of all enemies in the game
-     * @return a list of AttackDto containing the enemies in range
+     * @param enemies all enemies in the room
+     * @return indices of the enemies in range
      */
-    private ArrayList<AttackDto> getEnemiesInRange(ArrayList<Enemy> enemies) {
-        ArrayList<AttackDto> enemiesInRange = new ArrayList<>();
-
+    private IntArray getEnemiesInRange(Enemies enemies) {
         // Get the position of the player
-        Vector2 playerPosition = getPosition();
-
-        // Default attack texture
-        this.attackTextureName = PLAYER_ATTACK_DOWN;
+        Vector2 playerPosition = getPosition(this.position);
 
-        List<Thread> threads = new ArrayList<>();
+        // Default attack region
+        this.attackRegion = ATTACK_DOWN;
 
-        for (Enemy enemy : enemies) {
-            // Start a virtual thread for every enemy to check if they are in range
-            Thread thread = Thread.ofVirtual().unstarted(() -> {
-                // Get the position of the enemy
-                Vector2 selfPosition = enemy.getPosition();
+        nearbyEnemies.clear();
+        enemies.queryInRange(playerPosition.x, playerPosition.y, this.equippedWeapon.getRange(), nearbyEnemies);
 
-                // Calculate the distance between the player and the enemy
-                float distance = playerPosition.dst(selfPosition);
-
-                // Check if the enemy is within range
-                if (distance < this.equippedWeapon.getRange()) {
-                    // Get the direction of the attack
-                    Vector2 attackDirection = playerPosition.cpy().sub(selfPosition).nor();
-
-                    enemiesInRange.add(new AttackDto(attackDirection, enemy, false));
-                }
-            });
-            threads.add(thread);
-            thread.start();
-        }
-
-        // Wait for all threads to finish
-        for (Thread thread : threads) {
-            try {
-                thread.join();
-            } catch (InterruptedException e) {
-                e.printStackTrace();
-            }
-        }
-
-        return enemiesInRange;
+        return nearbyEnemies;
     }
 
     /**
      * Performs an attack on the specified enemy.
      *
      * @param attackDetail contains information about the attack direction and the target enemy
+     * @param enemies the enemies in the room
      * @return true if the enemy is dead, false if the enemy is still alive
      */
-    private boolean attackEnemy(AttackDto attackDetail) {
-        attackDetail.enemyToAttack.takeDamage(this.equippedWeapon.getDamage());
+    private boolean attackEnemy(AttackDto attackDetail, Enemies enemies) {
+        boolean alive = enemies.damageEnemy(attackDetail.enemyToAttack, this.equippedWeapon.getDamage());
 
         // update the attack texture
         // TODO - temporary solution
         // this.sprite.setTexture(new Texture(PLAYER_ATTACK_DOWN));
         /*updateAttackTexture(attackDetail.direction);*/
 
-        return !attackDetail.enemyToAttack.isAlive();
+        return !alive;
     }
 
     /**
-     * Updates the player's attack texture based on the direction of the attack.
+     * Updates the player's attack region based on the direction of the attack.
      *
      * @param direction the direction of the attack
      */
     private void updateAttackTexture(Vector2 direction) {
         if (Math.abs(direction.x) > Math.abs(direction.y)) {
-            this.attackTextureName = (direction.x > 0) ? PLAYER_ATTACK_RIGHT : PLAYER_ATTACK_LEFT;
+            this.attackRegion = (direction.x > 0) ? ATTACK_RIGHT : ATTACK_LEFT;
         } else {
-            this.attackTextureName = (direction.y > 0) ? PLAYER_ATTACK_UP : PLAYER_ATTACK_DOWN;
+            this.attackRegion = (direction.y > 0) ? ATTACK_UP : ATTACK_DOWN;
         }
 
-        this.sprite.setTexture(new Texture(this.attackTextureName));
+        changeRegion(this.attackRegion);
     }
 
 
-    private RoomMovementDto canMoveX(float deltaX, Room currentRoom) {
-        float delta = Gdx.graphics.getDeltaTime();
-        float newX = this.sprite.getX() + deltaX * delta;
-        float spriteWidth = this.sprite.getWidth();
+    private RoomMovementDto canMoveX(float deltaX, Room currentRoom, float delta) {
+        float newX = this.x + deltaX * delta;
+        float playerWidth = this.width;
 
         float left = newX;
-        float right = newX + spriteWidth;
+        float right = newX + playerWidth;
 
         float roomLeft = currentRoom.bounds.x;
         float roomRight = roomLeft + currentRoom.bounds.width;
 
         // Normal movement inside current room
         if (left >= roomLeft && right <= roomRight) {
-            return new RoomMovementDto(true, false, null);
+            return roomMovement.set(true, false, null);
         }
 
         if (currentRoom.active == true) {
-            return new RoomMovementDto(false, false, null);
+            return roomMovement.set(false, false, null);
         }
 
-        float playerBottom = this.sprite.getY();
-        float playerTop = playerBottom + this.sprite.getHeight();
-
-        for (Room neighbor : currentRoom.neighbors) {
-            if (left < roomLeft && isLeftNeighbor(currentRoom, neighbor)) {
-                if (overlapsVertically(playerBottom, playerTop, neighbor.bounds.y, neighbor.bounds.y + neighbor.bounds.height)) {
-
-                    // ======= CLAMP PLAYER Y POSITION TO NEIGHBOR ROOM VERTICAL BOUNDS =======
-                    float clampedY = Math.min(Math.max(playerBottom, neighbor.bounds.y),
-                            neighbor.bounds.y + neighbor.bounds.height - this.sprite.getHeight());
-                    this.sprite.setY(clampedY);
+        float playerBottom = this.y;
+        float playerTop = playerBottom + this.height;
 
-                    return new RoomMovementDto(true, true, neighbor);
-                }
-            }
-
-            if (right > roomRight && isRightNeighbor(currentRoom, neighbor)) {
-                if (overlapsVertically(playerBottom, playerTop, neighbor.bounds.y, neighbor.bounds.y + neighbor.bounds.height)) {
+        RoomSide side = (left < roomLeft) ? RoomSide.LEFT : RoomSide.RIGHT;
+        Doorway doorway = currentRoom.getDoorway(side, playerBottom, playerTop);
+        if (doorway != null) {
+            Room neighbor = doorway.neighbor;
 
-                    // ======= CLAMP PLAYER Y POSITION TO NEIGHBOR ROOM VERTICAL BOUNDS =======
-                    float clampedY = Math.min(Math.max(playerBottom, neighbor.bounds.y),
-                            neighbor.bounds.y + neighbor.bounds.height - this.sprite.getHeight());
-                    this.sprite.setY(clampedY);
+            // ======= CLAMP PLAYER Y POSITION TO NEIGHBOR ROOM VERTICAL BOUNDS =======
+            float clampedY = Math.min(Math.max(playerBottom, neighbor.bounds.y),
+                    neighbor.bounds.y + neighbor.bounds.height - this.height);
+            this.y = clampedY;
 
-                    return new RoomMovementDto(true, true, neighbor);
-                }
-            }
+            return roomMovement.set(true, true, neighbor);
         }
 
-        return new RoomMovementDto(false, false, null);
+        return roomMovement.set(false, false, null);
     }
 
-    private RoomMovementDto canMoveY(float deltaY, Room currentRoom) {
-        float delta = Gdx.graphics.getDeltaTime();
-        float newY = this.sprite.getY() + deltaY * delta;
-        float spriteHeight = this.sprite.getHeight();
+    private RoomMovementDto canMoveY(float deltaY, Room currentRoom, float delta) {
+        float newY = this.y + deltaY * delta;
+        float playerHeight = this.height;
 
         float bottom = newY;
-        float top = newY + spriteHeight;
+        float top = newY + playerHeight;
 
         float roomBottom = currentRoom.bounds.y;
         float roomTop = roomBottom + currentRoom.bounds.height;
 
         // Normal movement inside current room
         if (bottom >= roomBottom && top <= roomTop) {
-            return new RoomMovementDto(true, false, null);
+            return roomMovement.set(true, false, null);
         }
 
         if (currentRoom.active == true) {
-            return new RoomMovementDto(false, false, null);
+            return roomMovement.set(false, false, null);
         }
 
-        float playerLeft = this.sprite.getX();
-        float playerRight = playerLeft + this.sprite.getWidth();
-
-        for (Room neighbor : currentRoom.neighbors) {
-            if (bottom < roomBottom && isBottomNeighbor(currentRoom, neighbor)) {
-                if (overlapsHorizontally(playerLeft, playerRight, neighbor.bounds.x, neighbor.bounds.x + neighbor.bounds.width)) {
-
-                    // ======= CLAMP PLAYER X POSITION TO NEIGHBOR ROOM HORIZONTAL BOUNDS =======
-                    float clampedX = Math.min(Math.max(playerLeft, neighbor.bounds.x),
-                            neighbor.bounds.x + neighbor.bounds.width - this.sprite.getWidth());
-                    this.sprite.setX(clampedX);
+        float playerLeft = this.x;
+        float playerRight = playerLeft + this.width;
 
-                    return new RoomMovementDto(true, true, neighbor);
-                }
-            }
-
-            if (top > roomTop && isTopNeighbor(currentRoom, neighbor)) {
-                if (overlapsHorizontally(playerLeft, playerRight, neighbor.bounds.x, neighbor.bounds.x + neighbor.bounds.width)) {
+        RoomSide side = (bottom < roomBottom) ? RoomSide.BOTTOM : RoomSide.TOP;
+        Doorway doorway = currentRoom.getDoorway(side, playerLeft, playerRight);
+        if (doorway != null) {
+            Room neighbor = doorway.neighbor;
 
-                    // ======= CLAMP PLAYER X POSITION TO NEIGHBOR ROOM HORIZONTAL BOUNDS =======
-                    float clampedX = Math.min(Math.max(playerLeft, neighbor.bounds.x),
-                            neighbor.bounds.x + neighbor.bounds.width - this.sprite.getWidth());
-                    this.sprite.setX(clampedX);
+            // ======= CLAMP PLAYER X POSITION TO NEIGHBOR ROOM HORIZONTAL BOUNDS =======
+            float clampedX = Math.min(Math.max(playerLeft, neighbor.bounds.x),
+                    neighbor.bounds.x + neighbor.bounds.width - this.width);
+            this.x = clampedX;
 
-                    return new RoomMovementDto(true, true, neighbor);
-                }
-            }
+            return roomMovement.set(true, true, neighbor);
         }
 
-        return  new RoomMovementDto(false, false, null);
-    }
-
-// Helper methods to check adjacency
-
-    // Changed overlap check methods with minimum overlap threshold
-    private boolean overlapsVertically(float start1, float end1, float start2, float end2) {
-        float overlap = Math.min(end1, end2) - Math.max(start1, start2);
-        float minOverlap = 0.3f * (end1 - start1);  // minimum 30% overlap of player height
-        return overlap > minOverlap;
-    }
-
-    private boolean overlapsHorizontally(float start1, float end1, float start2, float end2) {
-        float overlap = Math.min(end1, end2) - Math.max(start1, start2);
-        float minOverlap = 0.3f * (end1 - start1);  // minimum 30% overlap of player width
-        return overlap > minOverlap;
-    }
-
-    // =======================
-    // Improved adjacency check with overlap verification
-
-    private boolean isLeftNeighbor(Room current, Room neighbor) {
-        // Check left adjacency and vertical overlap of room edges
-        boolean adjacentOnX = Math.abs(neighbor.bounds.x + neighbor.bounds.width - current.bounds.x) < 0.001;
-        boolean verticalOverlap = overlapsVertically(current.bounds.y, current.bounds.y + current.bounds.height,
-                neighbor.bounds.y, neighbor.bounds.y + neighbor.bounds.height);
-        return adjacentOnX && verticalOverlap;
-    }
-
-    private boolean isRightNeighbor(Room current, Room neighbor) {
-        boolean adjacentOnX = Math.abs(neighbor.bounds.x - (current.bounds.x + current.bounds.width)) < 0.001;
-        boolean verticalOverlap = overlapsVertically(current.bounds.y, current.bounds.y + current.bounds.height,
-                neighbor.bounds.y, neighbor.bounds.y + neighbor.bounds.height);
-        return adjacentOnX && verticalOverlap;
-    }
-
-    private boolean isBottomNeighbor(Room current, Room neighbor) {
-        boolean adjacentOnY = Math.abs(neighbor.bounds.y + neighbor.bounds.height - current.bounds.y) < 0.001;
-        boolean horizontalOverlap = overlapsHorizontally(current.bounds.x, current.bounds.x + current.bounds.width,
-                neighbor.bounds.x, neighbor.bounds.x + neighbor.bounds.width);
-        return adjacentOnY && horizontalOverlap;
-    }
-
-    private boolean isTopNeighbor(Room current, Room neighbor) {
-        boolean adjacentOnY = Math.abs(neighbor.bounds.y - (current.bounds.y + current.bounds.height)) < 0.001;
-        boolean horizontalOverlap = overlapsHorizontally(current.bounds.x, current.bounds.x + current.bounds.width,
-                neighbor.bounds.x, neighbor.bounds.x + neighbor.bounds.width);
-        return adjacentOnY && horizontalOverlap;
+        return roomMovement.set(false, false, null);
     }
 
 
 
-// Movement methods to update the player's sprite position
+// Movement methods to update the player's position
     /**
-     * Moves the player upwards by updating the sprite's position and texture.
+     * Moves the player upwards by updating the position and pose.
      * The movement speed and texture for walking up are used.
+     *
+     * @param currentRoom the room the player is in
+     * @param delta duration of the simulation step in seconds
+     * @return whether the player moved and whether they entered another room
      */
-    public RoomMovementDto moveUp(Room currentRoom) {
+    public RoomMovementDto moveUp(Room currentRoom, float delta) {
         float deltaY = this.speed;
-        float delta = Gdx.graphics.getDeltaTime();
-        RoomMovementDto dto = canMoveY(deltaY, currentRoom);
+        RoomMovementDto dto = canMoveY(deltaY, currentRoom, delta);
         if (dto.canMove) {
-            this.sprite.setY(this.sprite.getY() + deltaY * delta);
-            this.updateMovementTexture(new MovementDto(0, deltaY, PLAYER_WALKING_UP));
+            this.y += deltaY * delta;
+            this.updateMovement(0, deltaY, WALK_UP, delta);
         }
 
         return dto;
     }
 
     /**
-     * Moves the player downwards by updating the sprite's position and texture.
+     * Moves the player downwards by updating the position and pose.
      * The movement speed and texture for walking down are used.
+     *
+     * @param currentRoom the room the player is in
+     * @param delta duration of the simulation step in seconds
+     * @return whether the player moved and whether they entered another room
      */
-    public RoomMovementDto moveDown(Room currentRoom) {
+    public RoomMovementDto moveDown(Room currentRoom, float delta) {
         float deltaY = -this.speed;
-        float delta = Gdx.graphics.getDeltaTime();
-        RoomMovementDto dto = canMoveY(deltaY, currentRoom);
+        RoomMovementDto dto = canMoveY(deltaY, currentRoom, delta);
         if (dto.canMove) {
-            this.sprite.setY(this.sprite.getY() + deltaY * delta);
-            this.updateMovementTexture(new MovementDto(0, deltaY, PLAYER_WALKING_DOWN));
+            this.y += deltaY * delta;
+            this.updateMovement(0, deltaY, WALK_DOWN, delta);
         }
         return dto;
     }
 
     /**
-     * Moves the player to the left by updating the sprite's position and texture.
+     * Moves the player to the left by updating the position and pose.
      * The movement speed and texture for walking left are used.
+     *
+     * @param currentRoom the room the player is in
+     * @param delta duration of the simulation step in seconds
+     * @return whether the player moved and whether they entered another room
      */
-    public RoomMovementDto moveLeft(Room currentRoom) {
+    public RoomMovementDto moveLeft(Room currentRoom, float delta) {
         float deltaX = -this.speed;
-        float delta = Gdx.graphics.getDeltaTime();
-        RoomMovementDto dto = canMoveX(deltaX, currentRoom);
+        RoomMovementDto dto = canMoveX(deltaX, currentRoom, delta);
         if (dto.canMove) {
-            this.sprite.setX(this.sprite.getX() + deltaX * delta);
-            this.updateMovementTexture(new MovementDto(deltaX, 0, PLAYER_WALKING_LEFT));
+            this.x += deltaX * delta;
+            this.updateMovement(deltaX, 0, WALK_LEFT, delta);
         }
         return dto;
     }
 
     /**
-     * Moves the player to the right by updating the sprite's position and texture.
+     * Moves the player to the right by updating the position and pose.
      * The movement speed and texture for walking right are used.
+     *
+     * @param currentRoom the room the player is in
+     * @param delta duration of the simulation step in seconds
+     * @return whether the player moved and whether they entered another room
      */
-    public RoomMovementDto moveRight(Room currentRoom) {
+    public RoomMovementDto moveRight(Room currentRoom, float delta) {
         float deltaX = this.speed;
-        float delta = Gdx.graphics.getDeltaTime();
-        RoomMovementDto dto = canMoveX(deltaX, currentRoom);
+        RoomMovementDto dto = canMoveX(deltaX, currentRoom, delta);
         if (dto.canMove) {
-            this.sprite.setX(this.sprite.getX() + deltaX * delta);
-            this.updateMovementTexture(new MovementDto(deltaX, 0, PLAYER_WALKING_RIGHT));
+            this.x += deltaX * delta;
+            this.updateMovement(deltaX, 0, WALK_RIGHT, delta);
         }
         return dto;
     }
@@ -506,6 +471,23 @@ public class Player extends Character {
         this.equippedWeapon = newWeapon;
     }
 
+    /**
+     * Restores the state of the player from a world snapshot.
+     *
+     * @param health the saved health
+     * @param stamina the saved stamina
+     * @param balance the saved balance
+     * @param armor the saved armor
+     * @param weapon the saved weapon
+     */
+    public void restoreState(int health, float stamina, int balance, int armor, Weapon weapon) {
+        this.health = health;
+        this.stamina = stamina;
+        this.balance = balance;
+        this.armor = armor;
+        this.equippedWeapon = weapon;
+    }
+
 
 
     @Override
@@ -522,20 +504,27 @@ public class Player extends Character {
             }
         }
 
-        logger.info("player is taking damage: " + this.toString() + "\n damage" + damage);
+        GameLog.log(GameEvent.PLAYER_DAMAGED, damage, this.health, this.armor);
 
         return isAlive();
     }
 
     @Override
-    protected BarVisualDto[] getBarDto() {
+    protected BarVisualDto[] createBarDto() {
         return new BarVisualDto[] {
-                new BarVisualDto("health", this.health / (float) this.maxHealth),
-                new BarVisualDto("armor", this.armor / (float) this.maxArmor),
-                new BarVisualDto("stamina", this.stamina / (float) this.maxStamina),
+                new BarVisualDto(BarStyle.HEALTH, 1f),
+                new BarVisualDto(BarStyle.ARMOR, 1f),
+                new BarVisualDto(BarStyle.STAMINA, 1f),
         };
     }
 
+    @Override
+    protected void updateBarDto(BarVisualDto[] bars) {
+        bars[0].ratio = this.health / (float) this.maxHealth;
+        bars[1].ratio = this.armor / (float) this.maxArmor;
+        bars[2].ratio = this.stamina / (float) this.maxStamina;
+    }
+
 
     @Override
     public String toString() {
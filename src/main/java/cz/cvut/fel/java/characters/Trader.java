@@ -1,14 +1,23 @@
 package cz.cvut.fel.java.characters;
 
 import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.Sprite;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import cz.cvut.fel.java.objects.weapons.Weapon;
+import cz.cvut.fel.java.rendering.RenderLayer;
+import cz.cvut.fel.java.rendering.RenderQueue;
+import cz.cvut.fel.java.textures.CharacterAtlas;
 import cz.cvut.fel.java.uicomponents.texts.Text;
 import lombok.Getter;
 
+import java.util.EnumMap;
+
 import static cz.cvut.fel.java.textureconstants.TraderTextures.*;
 
+/**
+ * Trader selling healing, armor repairs and weapon upgrades to the player. The trades and the time
+ * their result is shown are simulated, the sprite and the dialogue texts are created on the first render.
+ */
 public class Trader {
     private final int healCost = 10;
     private final int repairCost = 10;
@@ -17,61 +26,72 @@ public class Trader {
     private final int healAmount = 10;
     private final int repairAmount = 10;
 
-    public float resultDisplayTime;
     private final float resultDisplayTimeConstant = 2f;
 
-    public boolean tradeMenuOpened = false;
-
-    public Texture traderTexture = new Texture(TRADER_STAND_DOWN);
-    @Getter public Sprite traderSprite = new Sprite(traderTexture);
+    /**
+     * Result of a trade shown to the player.
+     */
+    public enum TradeResult {
+        HEALED("Player healed", 300),
+        REPAIRED("Armor repaired", 300),
+        UPGRADED("Weapon upgraded", 300),
+        NOT_ENOUGH_MONEY("Not enough money", -300);
+
+        public final String message;
+
+        /**
+         * Vertical offset of the message on the screen.
+         */
+        final int offsetY;
+
+        TradeResult(String message, int offsetY) {
+            this.message = message;
+            this.offsetY = offsetY;
+        }
+    }
 
+    public boolean tradeMenuOpened = false;
 
-    public final Text initialDialogueText = new Text(
-            "initial dialogue",
-            Gdx.graphics.getWidth(), Gdx.graphics.getHeight()
-    );
-    public final Text tradeUnsuccessfulText = new Text(
-            "Not enough money",
-            Gdx.graphics.getWidth(), Gdx.graphics.getHeight() - 300
-    );
+    /**
+     * Result of the last trade, null when no result is shown.
+     */
+    @Getter private TradeResult tradeResult;
 
-    public Text tradeResultText;
+    /**
+     * Time in seconds the result of the last trade is still shown.
+     */
+    private float resultDisplayTime;
 
-    public final Text healSucessfulText = new Text(
-            "Player healed",
-            Gdx.graphics.getWidth(), Gdx.graphics.getHeight() + 300
-    );
-    public final Text repairSuccessfulText = new Text(
-            "Armor repaired",
-            Gdx.graphics.getWidth(), Gdx.graphics.getHeight() + 300
-    );
-    public final Text upgradeSuccessfulText = new Text(
-            "Weapon upgraded",
-            Gdx.graphics.getWidth(), Gdx.graphics.getHeight() + 300
-    );
+    /**
+     * Position of the trader.
+     */
+    @Getter private float x;
+    @Getter private float y;
 
+    // View of the trader, created on the first render
+    private Sprite traderSprite;
+    private Text initialDialogueText;
+    private final EnumMap<TradeResult, Text> resultTexts = new EnumMap<>(TradeResult.class);
 
     public void healPlayer(Player player) {
         // Check if player can play for the healing
         if (player.canPay(healCost)) {
             player.heal(healAmount);
             player.pay(healCost);
-            this.tradeResultText = healSucessfulText;
+            showResult(TradeResult.HEALED);
         } else {
-            this.tradeResultText = tradeUnsuccessfulText;
+            showResult(TradeResult.NOT_ENOUGH_MONEY);
         }
-        this.resultDisplayTime = this.resultDisplayTimeConstant;
     }
 
     public void repairArmor(Player player) {
         if (player.canPay(repairCost)) {
             player.repairArmor(repairAmount);
             player.pay(repairCost);
-            tradeResultText = repairSuccessfulText;
+            showResult(TradeResult.REPAIRED);
         } else {
-            this.tradeResultText = tradeUnsuccessfulText;
+            showResult(TradeResult.NOT_ENOUGH_MONEY);
         }
-        this.resultDisplayTime = this.resultDisplayTimeConstant;
     }
 
     public void upgradeWeapon(Player player) {
@@ -79,16 +99,91 @@ public class Trader {
             Weapon upgradedWeapon = new Weapon("sword2");
             player.changeWeapon(upgradedWeapon);
             player.pay(upgradeCost);
-            tradeResultText = upgradeSuccessfulText;
+            showResult(TradeResult.UPGRADED);
         } else {
-            this.tradeResultText = tradeUnsuccessfulText;
+            showResult(TradeResult.NOT_ENOUGH_MONEY);
         }
+    }
+
+    private void showResult(TradeResult result) {
+        this.tradeResult = result;
         this.resultDisplayTime = this.resultDisplayTimeConstant;
     }
 
+    /**
+     * Counts down the time the result of the last trade is shown.
+     *
+     * @param delta duration of the simulation step in seconds
+     */
+    public void update(float delta) {
+        if (tradeResult == null) {
+            return;
+        }
+        resultDisplayTime -= delta;
+        if (resultDisplayTime <= 0) {
+            tradeResult = null;
+        }
+    }
+
     public void setPosition(float x, float y) {
-        this.traderSprite.setPosition(x, y);
+        this.x = x;
+        this.y = y;
     }
 
+    /**
+     * Queues the sprite of the trader. Must be called on the render thread.
+     *
+     * @param renderQueue queue of the current frame
+     */
+    public void render(RenderQueue renderQueue) {
+        if (traderSprite == null) {
+            CharacterAtlas.acquire();
+            traderSprite = new Sprite(CharacterAtlas.getRegion(CharacterAtlas.indexOf(TRADER_STAND_DOWN)));
+        }
+        traderSprite.setPosition(x, y);
+        renderQueue.sprite(RenderLayer.ENTITIES, traderSprite);
+    }
 
+    /**
+     * Draws the trade menu and the result of the last trade. Must be called on the render thread
+     * between the begin and the end of the batch.
+     *
+     * @param batch the sprite batch
+     */
+    public void renderDialogue(SpriteBatch batch) {
+        if (tradeMenuOpened) {
+            if (initialDialogueText == null) {
+                initialDialogueText = new Text("initial dialogue", Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
+            }
+            initialDialogueText.renderText(batch);
+        }
+
+        if (tradeResult != null) {
+            Text text = resultTexts.get(tradeResult);
+            if (text == null) {
+                text = new Text(tradeResult.message, Gdx.graphics.getWidth(), Gdx.graphics.getHeight() + tradeResult.offsetY);
+                resultTexts.put(tradeResult, text);
+            }
+            text.renderText(batch);
+        }
+    }
+
+    /**
+     * Releases the character atlas and disposes of the dialogue texts.
+     */
+    public void dispose() {
+        if (traderSprite != null) {
+            CharacterAtlas.release();
+            traderSprite = null;
+        }
+
+        if (initialDialogueText != null) {
+            initialDialogueText.dispose();
+            initialDialogueText = null;
+        }
+        for (Text text : resultTexts.values()) {
+            text.dispose();
+        }
+        resultTexts.clear();
+    }
 }
@@ -1,22 +1,18 @@
 package cz.cvut.fel.java.dto;
 
 import com.badlogic.gdx.math.Vector2;
-import cz.cvut.fel.java.characters.Enemy;
 
 public class AttackDto {
      public Vector2 direction;
 
-     public Enemy enemyToAttack;
-     public Enemy attacker;
+     /**
+      * Index of the attacked enemy in its {@link cz.cvut.fel.java.characters.Enemies} collection.
+      */
+     public int enemyToAttack;
 
-     public AttackDto(Vector2 direction, Enemy enemyToAttack, boolean isAttacker) {
+     public AttackDto(Vector2 direction, int enemyToAttack) {
           this.direction = direction;
-
-          if (isAttacker) {
-               this.attacker = enemyToAttack;
-          } else {
-               this.enemyToAttack = enemyToAttack;
-          }
+          this.enemyToAttack = enemyToAttack;
      }
 
 }
@@ -0,0 +1,38 @@
+package cz.cvut.fel.java.dto;
+
+import com.badlogic.gdx.graphics.Color;
+
+/**
+ * Look of a bar shown above a character.
+ */
+public enum BarStyle {
+    HEALTH("health", Color.RED, 2, 4f),
+    ARMOR("armor", Color.GRAY, 1, 4f),
+    STAMINA("stamina", Color.BLUE, 1, 0f);
+
+    /**
+     * Name of the style.
+     */
+    public final String name;
+
+    public final Color color;
+
+    /**
+     * Position of the bar above the character, counted from the character.
+     */
+    public final int order;
+
+    public final float padding;
+
+    BarStyle(String name, Color color, int order, float padding) {
+        this.name = name;
+        this.color = color;
+        this.order = order;
+        this.padding = padding;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -11,33 +11,15 @@ public class BarVisualDto {
     public int order;
     public float ratio;
 
-    public String type;
+    public BarStyle type;
     public float padding;
 
-    public BarVisualDto(String type, float ration) {
-        boolean createPadding = false;
-        if (type.equals("health")) {
-            this.type = "health";
-            color = Color.RED;
-            order = 2;
-            this.ratio = ration;
-            createPadding = true;
-        } else if (type.equals("armor")) {
-            this.type = "armor";
-            color = Color.GRAY;
-            order = 1;
-            this.ratio = ration;
-            createPadding = true;
-        } else if (type.equals("stamina")) {
-            this.type = "stamina";
-            color = Color.BLUE;
-            order = 1;
-            this.ratio = ration;
-        }
-
-         if (createPadding) {
-             this.padding = 4f;
-         }
+    public BarVisualDto(BarStyle type, float ration) {
+        this.type = type;
+        this.color = type.color;
+        this.order = type.order;
+        this.padding = type.padding;
+        this.ratio = ration;
     }
 
     @Override
@@ -4,11 +4,23 @@ public class MovementDto {
     public float deltaX;
     public float deltaY;
 
-    public String textureName;
+    public int region;
 
-    public MovementDto(float deltaX, float deltaY, String textureName) {
+    public MovementDto(float deltaX, float deltaY, int region) {
         this.deltaX = deltaX;
         this.deltaY = deltaY;
-        this.textureName = textureName;
+        this.region = region;
+    }
+
+    /**
+     * Overwrites the movement, so one instance can be reused for every step.
+     *
+     * @return this movement
+     */
+    public MovementDto set(float deltaX, float deltaY, int region) {
+        this.deltaX = deltaX;
+        this.deltaY = deltaY;
+        this.region = region;
+        return this;
     }
 }
@@ -12,4 +12,16 @@ public class RoomMovementDto {
         this.switchRoom = switchRoom;
         this.nextRoom = nextRoom;
     }
+
+    /**
+     * Overwrites the result, so one instance can be reused for every movement.
+     *
+     * @return this result
+     */
+    public RoomMovementDto set(boolean canMove, boolean switchRoom, Room nextRoom) {
+        this.canMove = canMove;
+        this.switchRoom = switchRoom;
+        this.nextRoom = nextRoom;
+        return this;
+    }
 }
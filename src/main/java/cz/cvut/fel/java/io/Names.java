@@ -0,0 +1,34 @@
+package cz.cvut.fel.java.io;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Encoding of the names (types, maps, slots) in the binary files: a short length and the UTF-8 bytes.
+ */
+public final class Names {
+    private Names() {}
+
+    /**
+     * @param out the output
+     * @param name the written name
+     * @throws IOException if the output cannot be written
+     */
+    public static void write(DataOutputStream out, String name) throws IOException {
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        out.writeShort(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * @param buffer the buffer positioned at the name, it is advanced past it
+     * @return the read name
+     */
+    public static String read(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getShort() & 0xFFFF];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
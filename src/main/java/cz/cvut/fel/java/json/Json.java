@@ -0,0 +1,32 @@
+package cz.cvut.fel.java.json;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+
+/**
+ * The object mapper shared by everything reading or writing JSON (levels, saves, catalogs).
+ * An object mapper is expensive to create and thread safe once configured, so it is created only once.
+ */
+public final class Json {
+    /**
+     * The shared object mapper. It must not be reconfigured.
+     */
+    public static final ObjectMapper MAPPER = JsonMapper.builder()
+            // Hand-written files may contain comments
+            .enable(JsonParser.Feature.ALLOW_COMMENTS)
+            // Files written by newer versions of the game may contain more fields
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .build();
+
+    private Json() {}
+
+    /**
+     * @return the factory of the shared object mapper, for streaming parsers and generators
+     */
+    public static JsonFactory factory() {
+        return MAPPER.getFactory();
+    }
+}
@@ -1,19 +1,30 @@
 package cz.cvut.fel.java.levels;
 
+import com.badlogic.gdx.math.Rectangle;
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import cz.cvut.fel.java.Rooms.Doorway;
 import cz.cvut.fel.java.Rooms.Room;
+import cz.cvut.fel.java.Rooms.RoomSide;
 import cz.cvut.fel.java.Rooms.Rooms;
+import cz.cvut.fel.java.metrics.GameMetrics;
+import cz.cvut.fel.java.profiling.LevelLoadEvent;
 import lombok.Getter;
 import lombok.Setter;
 
-import java.io.File;
 import java.io.IOException;
+import java.nio.file.Path;
+import java.util.logging.Logger;
 
 /**
  * Represents a game level with associated data such as level number and map layout.
  */
 public class Level {
+    private static final Logger logger = Logger.getLogger(Level.class.getName());
+
+    /**
+     * Directory of the level JSON files.
+     */
+    public static final String LEVELS_DIRECTORY = "src/main/resources/levels";
 
     /**
      * The level number of the game level.
@@ -43,61 +54,137 @@ public class Level {
      */
     public static Level createLevel(JsonNode levelData) {
         // Get the level number from the JSON data
-        int levelNumber = levelData.get("currentLevel").asInt();
+        return createLevel(levelData.get("currentLevel").asInt());
+    }
 
-        // Build the file path to the level's JSON file
-        String filePath = "src/main/resources/levels/level" + levelNumber + ".json";
+    /**
+     * Creates a Level instance from the level file with the given number, see {@link LevelBinary}.
+     *
+     * @param levelNumber number of the level
+     * @return a Level object populated with data from the level file
+     */
+    public static Level createLevel(int levelNumber) {
+        return createLevel(sourcePath(levelNumber), LevelBinary.binaryPath(levelNumber));
+    }
 
-        // Create an ObjectMapper to read the JSON file
-        ObjectMapper mapper = new ObjectMapper();
+    /**
+     * Creates a Level instance from the given level file, see {@link LevelBinary}.
+     *
+     * @param source path of the level JSON file
+     * @param binary path of the binary form of the level
+     * @return a Level object populated with data from the level file
+     */
+    static Level createLevel(Path source, Path binary) {
+        long start = System.nanoTime();
+        LevelLoadEvent event = new LevelLoadEvent();
+        event.begin();
 
-        // Initialize the Level object
-        Level level = new Level();
+        Level level;
         try {
-            JsonNode root = mapper.readTree(new File(filePath));
-            level.levelNumber = root.get("levelNumber").asInt();
-            level.map = root.get("map").asText();
-
-            // Extract rooms from the JSON data
-            level.extractRooms(root.path("rooms"));
-            // Assert that neighbors are correctly set up
-            level.assertNeighbors();
-
-            System.out.println("rooms: " + level.rooms.size());
-            for (Room room : level.rooms) {
-                System.out.println(room);
-            }
-
+            // The binary form is memory-mapped if it is up to date, otherwise the JSON file is parsed
+            level = LevelBinary.load(source, binary);
         } catch (IOException e) {
-            e.printStackTrace();
+            logger.severe("Cannot read level " + source + ": " + e);
+            event.commit();
+            return new Level();
         }
 
+        // Assert that neighbors are correctly set up
+        level.assertNeighbors();
+        // Precompute the doorways between the neighbors
+        level.buildDoorways();
+
+        event.levelNumber = level.levelNumber;
+        event.roomCount = level.rooms.size();
+        event.succeeded = true;
+        event.commit();
+        GameMetrics.LEVEL_LOAD_LATENCY.record((System.nanoTime() - start) / 1000);
+
+        logger.fine(() -> "Level " + level.levelNumber + " has " + level.rooms.size() + " rooms");
         return level;
     }
 
-    private void extractRooms(JsonNode roomsData) {
-        if (roomsData.isArray()) {
-            for (JsonNode roomData : roomsData) {
-                rooms.add(new Room(roomData));
-            }
-        } else if (!roomsData.isMissingNode()) {
-            rooms.add(new Room(roomsData));
+    /**
+     * @param levelNumber number of the level
+     * @return path of the JSON file of the level
+     */
+    public static Path sourcePath(int levelNumber) {
+        return Path.of(LEVELS_DIRECTORY, "level" + levelNumber + ".json");
+    }
+
+    /**
+     * Creates the characters of all rooms (see {@link Room#createCharacters()}). Must be called
+     * on the thread simulating the level.
+     */
+    public void createCharacters() {
+        for (Room room : rooms) {
+            room.createCharacters();
         }
     }
 
+    /**
+     * @return internal path of the background texture of the level
+     */
+    public String getBackgroundPath() {
+        return "textures/" + map;
+    }
+
     private void assertNeighbors() {
         for (Room room : rooms) {
-            for (Integer neighborId : room.neighborsIds) {
+            for (int i = 0; i < room.neighborsIds.size; i++) {
+                int neighborId = room.neighborsIds.get(i);
                 Room neighbor = rooms.getRoomById(neighborId);
                 if (neighbor != null) {
                     room.neighbors.add(neighbor);
                 } else {
-                    System.err.println("Warning: Neighbor with ID " + neighborId + " not found for room " + room.id);
+                    logger.warning("Neighbor with ID " + neighborId + " not found for room " + room.id);
+                }
+            }
+        }
+    }
+
+    /**
+     * Finds on which side each neighbor touches its room and adds the doorway over the shared
+     * edge interval to the room, so moving between rooms does not have to search the neighbors.
+     * A neighbor touches a side if their edges meet and overlap by at least 30 % of the room's edge.
+     */
+    private void buildDoorways() {
+        for (Room room : rooms) {
+            Rectangle current = room.bounds;
+            for (Room neighbor : room.neighbors) {
+                Rectangle other = neighbor.bounds;
+
+                if (edgesMeet(other.x + other.width, current.x)
+                        && sharesEdge(current.y, current.y + current.height, other.y, other.y + other.height)) {
+                    room.addDoorway(RoomSide.LEFT, doorway(neighbor, current.y, current.y + current.height, other.y, other.y + other.height));
+                } else if (edgesMeet(other.x, current.x + current.width)
+                        && sharesEdge(current.y, current.y + current.height, other.y, other.y + other.height)) {
+                    room.addDoorway(RoomSide.RIGHT, doorway(neighbor, current.y, current.y + current.height, other.y, other.y + other.height));
+                } else if (edgesMeet(other.y + other.height, current.y)
+                        && sharesEdge(current.x, current.x + current.width, other.x, other.x + other.width)) {
+                    room.addDoorway(RoomSide.BOTTOM, doorway(neighbor, current.x, current.x + current.width, other.x, other.x + other.width));
+                } else if (edgesMeet(other.y, current.y + current.height)
+                        && sharesEdge(current.x, current.x + current.width, other.x, other.x + other.width)) {
+                    room.addDoorway(RoomSide.TOP, doorway(neighbor, current.x, current.x + current.width, other.x, other.x + other.width));
+                } else {
+                    logger.warning("Room " + neighbor.id + " does not touch its neighbor " + room.id);
                 }
             }
         }
     }
 
+    private static boolean edgesMeet(float edge1, float edge2) {
+        return Math.abs(edge1 - edge2) < 0.001;
+    }
+
+    private static boolean sharesEdge(float start1, float end1, float start2, float end2) {
+        float overlap = Math.min(end1, end2) - Math.max(start1, start2);
+        return overlap > 0.3f * (end1 - start1);
+    }
+
+    private static Doorway doorway(Room neighbor, float start1, float end1, float start2, float end2) {
+        return new Doorway(neighbor, Math.max(start1, start2), Math.min(end1, end2));
+    }
 
     /**
      * Returns a string representation of the Level object,
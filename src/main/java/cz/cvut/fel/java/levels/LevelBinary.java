@@ -0,0 +1,354 @@
+package cz.cvut.fel.java.levels;
+
+import com.badlogic.gdx.math.Rectangle;
+import cz.cvut.fel.java.Rooms.Room;
+import cz.cvut.fel.java.Rooms.RoomType;
+import cz.cvut.fel.java.dto.DimensionsDto;
+import cz.cvut.fel.java.io.AtomicFiles;
+import cz.cvut.fel.java.io.Names;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.logging.Logger;
+
+/**
+ * Binary form of the level files. A binary level is memory-mapped and the rooms are created
+ * straight from the mapping, without parsing JSON.
+ *
+ * <p>A level JSON file is compiled into its binary form the first time it is loaded, like the
+ * {@link cz.cvut.fel.java.catalog.ArchetypeCatalog}. The binary form stores the size and the
+ * modification time of the JSON file it was compiled from, so editing the JSON file recompiles it.
+ * A binary level without a JSON file (e.g. a generated dungeon) is used as it is.
+ *
+ * <p>Layout (big endian): magic, version, source size, source modification time, level number, map,
+ * room count n, then the rooms in flat arrays: ids (n ints), type ordinals (n bytes),
+ * rectangles (4n floats: x, y, width, height), type specific points (2n floats: spawn point, portal,
+ * trader or boss position, NaN if the room has none), neighbor offsets (n + 1 ints) and
+ * neighbor ids (as many ints as the last offset). The enemies follow: the number of enemy type names
+ * and the names, enemy count m, room indices (m ints), type name indices (m ints) and positions (2m floats).
+ * Names are stored as a short length and UTF-8 bytes.
+ */
+public final class LevelBinary {
+    private static final Logger logger = Logger.getLogger(LevelBinary.class.getName());
+
+    /**
+     * Directory the binary levels are written to.
+     */
+    public static final String BINARY_DIRECTORY = "src/main/resources/cache";
+
+    private static final int MAGIC = 0x4C45564C; // "LEVL"
+    private static final int VERSION = 1;
+
+    // Size of the header before the level number
+    private static final int HEADER_SIZE = 24;
+
+    private LevelBinary() {}
+
+    /**
+     * @param levelNumber number of the level
+     * @return path of the binary form of the level
+     */
+    public static Path binaryPath(int levelNumber) {
+        return Path.of(BINARY_DIRECTORY, "level" + levelNumber + ".bin");
+    }
+
+    /**
+     * Loads the level from its binary form if it is up to date. Otherwise the JSON file is parsed
+     * and the binary form is rewritten. The neighbors of the rooms are not linked yet.
+     *
+     * @param source path of the level JSON file
+     * @param binary path of the binary level
+     * @return the loaded level
+     * @throws IOException if neither the binary level nor the JSON file can be read
+     */
+    static Level load(Path source, Path binary) throws IOException {
+        long sourceSize = 0;
+        long sourceModified = 0;
+        boolean hasSource = Files.isRegularFile(source);
+        if (hasSource) {
+            BasicFileAttributes attributes = Files.readAttributes(source, BasicFileAttributes.class);
+            sourceSize = attributes.size();
+            sourceModified = attributes.lastModifiedTime().toMillis();
+        }
+
+        Level level = readBinary(binary, hasSource, sourceSize, sourceModified);
+        if (level != null) {
+            return level;
+        }
+
+        level = LevelParser.parse(source.toFile());
+        write(level, binary, sourceSize, sourceModified);
+        return level;
+    }
+
+    /**
+     * Reads the binary level if it exists and was compiled from the current JSON file.
+     *
+     * @return the level, or null if the JSON file must be parsed
+     */
+    private static Level readBinary(Path binary, boolean hasSource, long sourceSize, long sourceModified) {
+        if (!Files.isRegularFile(binary)) {
+            return null;
+        }
+
+        try (FileChannel channel = FileChannel.open(binary, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+            if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                return null;
+            }
+            long size = buffer.getLong();
+            long modified = buffer.getLong();
+            if (hasSource && (size != sourceSize || modified != sourceModified)) {
+                return null;
+            }
+
+            return read(buffer);
+        } catch (IOException | BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) {
+            logger.warning("Binary level " + binary + " is unreadable, parsing the JSON file: " + e);
+            return null;
+        }
+    }
+
+    /**
+     * Creates the level from the buffer positioned after the header.
+     * The rooms are read from the flat arrays in place.
+     */
+    private static Level read(ByteBuffer buffer) {
+        Level level = new Level();
+        level.setLevelNumber(buffer.getInt());
+        level.setMap(Names.read(buffer));
+
+        // Id, type, rectangle, point and neighbor offset of every room
+        int roomCount = readCount(buffer, 33);
+        int ids = buffer.position();
+        int types = ids + 4 * roomCount;
+        int rectangles = types + roomCount;
+        int points = rectangles + 16 * roomCount;
+        int neighborOffsets = points + 8 * roomCount;
+        int neighbors = neighborOffsets + 4 * (roomCount + 1);
+        int neighborCount = buffer.getInt(neighborOffsets + 4 * roomCount);
+
+        RoomType[] roomTypes = RoomType.values();
+        Room[] rooms = new Room[roomCount];
+        for (int i = 0; i < roomCount; i++) {
+            int rectangle = rectangles + 16 * i;
+            DimensionsDto dimensions = new DimensionsDto(
+                    buffer.getFloat(rectangle + 8), buffer.getFloat(rectangle + 12),
+                    buffer.getFloat(rectangle), buffer.getFloat(rectangle + 4));
+
+            Room room = new Room(buffer.getInt(ids + 4 * i), roomTypes[buffer.get(types + i)], dimensions);
+
+            int from = buffer.getInt(neighborOffsets + 4 * i);
+            int to = buffer.getInt(neighborOffsets + 4 * (i + 1));
+            for (int j = from; j < to; j++) {
+                room.addNeighborId(buffer.getInt(neighbors + 4 * j));
+            }
+
+            float x = buffer.getFloat(points + 8 * i);
+            float y = buffer.getFloat(points + 8 * i + 4);
+            if (!Float.isNaN(x)) {
+                setPoint(room, x, y);
+            }
+
+            rooms[i] = room;
+            level.rooms.add(room);
+        }
+
+        buffer.position(neighbors + 4 * neighborCount);
+        // Every name has at least its length
+        String[] enemyTypes = new String[readCount(buffer, 2)];
+        for (int i = 0; i < enemyTypes.length; i++) {
+            enemyTypes[i] = Names.read(buffer);
+        }
+
+        // Room, type index and position of every enemy
+        int enemyCount = readCount(buffer, 16);
+        int enemyRooms = buffer.position();
+        int enemyTypeIndices = enemyRooms + 4 * enemyCount;
+        int enemyPositions = enemyTypeIndices + 4 * enemyCount;
+        for (int i = 0; i < enemyCount; i++) {
+            Room room = rooms[checkIndex(buffer.getInt(enemyRooms + 4 * i), roomCount)];
+            if (room.enemies == null) {
+                throw new IllegalArgumentException("Enemy placed in room " + room.id + " without enemies");
+            }
+            room.spawnEnemy(
+                    enemyTypes[checkIndex(buffer.getInt(enemyTypeIndices + 4 * i), enemyTypes.length)],
+                    buffer.getFloat(enemyPositions + 8 * i), buffer.getFloat(enemyPositions + 8 * i + 4));
+        }
+
+        return level;
+    }
+
+    /**
+     * Reads the number of elements that follow in the buffer.
+     *
+     * @param elementSize smallest number of bytes of one element
+     * @return the number of elements
+     * @throws IllegalArgumentException if the remaining bytes cannot hold the elements
+     */
+    private static int readCount(ByteBuffer buffer, int elementSize) {
+        int count = buffer.getInt();
+        if (count < 0 || count > buffer.remaining() / elementSize) {
+            throw new IllegalArgumentException("Invalid count " + count);
+        }
+        return count;
+    }
+
+    /**
+     * @return the index read from the buffer
+     * @throws IllegalArgumentException if the index is not below the length
+     */
+    private static int checkIndex(int index, int length) {
+        if (index < 0 || index >= length) {
+            throw new IllegalArgumentException("Invalid index " + index);
+        }
+        return index;
+    }
+
+    private static void setPoint(Room room, float x, float y) {
+        switch (room.type) {
+            case SPAWN -> room.setSpawnPoint(x, y);
+            case PORTAL -> room.setPortal(x, y);
+            case TRADER -> room.setTraderPosition(x, y);
+            case BOSS -> room.setBossPosition(x, y);
+            default -> {
+                // Other rooms have no point
+            }
+        }
+    }
+
+    /**
+     * Writes the binary form of the level. The level must not have been played yet, the enemies
+     * are stored at their current positions. The binary level is written with {@link AtomicFiles},
+     * so a crash never leaves a partial file. The game still runs from the given level if it cannot be written.
+     *
+     * @param level the level to write
+     * @param binary path of the binary level
+     * @param sourceSize size of the JSON file the level was read from, 0 if it has none
+     * @param sourceModified modification time of the JSON file the level was read from, 0 if it has none
+     * @return true if the binary level was written
+     */
+    public static boolean write(Level level, Path binary, long sourceSize, long sourceModified) {
+        try {
+            byte[] bytes = compile(level, sourceSize, sourceModified);
+            AtomicFiles.write(binary, bytes);
+            return true;
+        } catch (IOException e) {
+            logger.warning("Cannot write binary level " + binary + ": " + e);
+            return false;
+        }
+    }
+
+    private static byte[] compile(Level level, long sourceSize, long sourceModified) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeLong(sourceSize);
+        out.writeLong(sourceModified);
+
+        out.writeInt(level.getLevelNumber());
+        Names.write(out, level.getMap());
+
+        int roomCount = level.rooms.size();
+        out.writeInt(roomCount);
+        for (Room room : level.rooms) {
+            out.writeInt(room.id);
+        }
+        for (Room room : level.rooms) {
+            out.writeByte(room.type.ordinal());
+        }
+        for (Room room : level.rooms) {
+            Rectangle bounds = room.bounds;
+            out.writeFloat(bounds.x);
+            out.writeFloat(bounds.y);
+            out.writeFloat(bounds.width);
+            out.writeFloat(bounds.height);
+        }
+        for (Room room : level.rooms) {
+            float[] point = pointOf(room);
+            out.writeFloat(point != null ? point[0] : Float.NaN);
+            out.writeFloat(point != null ? point[1] : Float.NaN);
+        }
+
+        int offset = 0;
+        out.writeInt(offset);
+        for (Room room : level.rooms) {
+            offset += room.neighborsIds.size;
+            out.writeInt(offset);
+        }
+        for (Room room : level.rooms) {
+            for (int i = 0; i < room.neighborsIds.size; i++) {
+                out.writeInt(room.neighborsIds.get(i));
+            }
+        }
+
+        // Enemies of all rooms as three flat columns
+        ArrayList<String> enemyTypes = new ArrayList<>();
+        ByteArrayOutputStream enemyBytes = new ByteArrayOutputStream();
+        DataOutputStream enemyRooms = new DataOutputStream(enemyBytes);
+        ByteArrayOutputStream typeBytes = new ByteArrayOutputStream();
+        DataOutputStream enemyTypeIndices = new DataOutputStream(typeBytes);
+        ByteArrayOutputStream positionBytes = new ByteArrayOutputStream();
+        DataOutputStream enemyPositions = new DataOutputStream(positionBytes);
+        int enemyCount = 0;
+
+        for (int i = 0; i < roomCount; i++) {
+            Room room = level.rooms.get(i);
+            if (room.enemies == null) {
+                continue;
+            }
+            for (int j = 0; j < room.enemies.size(); j++) {
+                String type = room.enemies.getType(j);
+                int typeIndex = enemyTypes.indexOf(type);
+                if (typeIndex < 0) {
+                    typeIndex = enemyTypes.size();
+                    enemyTypes.add(type);
+                }
+
+                enemyRooms.writeInt(i);
+                enemyTypeIndices.writeInt(typeIndex);
+                enemyPositions.writeFloat(room.enemies.getX(j));
+                enemyPositions.writeFloat(room.enemies.getY(j));
+                enemyCount++;
+            }
+        }
+
+        out.writeInt(enemyTypes.size());
+        for (String type : enemyTypes) {
+            Names.write(out, type);
+        }
+        out.writeInt(enemyCount);
+        enemyBytes.writeTo(out);
+        typeBytes.writeTo(out);
+        positionBytes.writeTo(out);
+
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    /**
+     * @return the point specific to the type of the room, or null if it has none
+     */
+    private static float[] pointOf(Room room) {
+        return switch (room.type) {
+            case SPAWN -> room.spawnPoint;
+            case PORTAL -> room.portal != null ? new float[]{room.portal.posX, room.portal.posY} : null;
+            case TRADER -> room.getTraderPosition();
+            case BOSS -> room.getBossPosition();
+            default -> null;
+        };
+    }
+}
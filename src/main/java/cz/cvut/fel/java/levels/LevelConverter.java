@@ -0,0 +1,54 @@
+package cz.cvut.fel.java.levels;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.logging.Logger;
+
+/**
+ * Converts the level JSON files into their binary form (see {@link LevelBinary}) ahead of time,
+ * so even the first load of a level does not parse JSON.
+ *
+ * <p>Usage: {@code LevelConverter [levelNumber...]}. Without arguments all levels in
+ * {@link Level#LEVELS_DIRECTORY} are converted.
+ */
+public final class LevelConverter {
+    private static final Logger logger = Logger.getLogger(LevelConverter.class.getName());
+
+    private LevelConverter() {}
+
+    public static void main(String[] args) throws IOException {
+        if (args.length > 0) {
+            for (String arg : args) {
+                convert(Integer.parseInt(arg));
+            }
+            return;
+        }
+
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(Path.of(Level.LEVELS_DIRECTORY), "level*.json")) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                convert(Integer.parseInt(name.substring("level".length(), name.length() - ".json".length())));
+            }
+        }
+    }
+
+    /**
+     * Converts the JSON file of the level with the given number.
+     *
+     * @param levelNumber number of the level
+     * @throws IOException if the JSON file cannot be read
+     */
+    public static void convert(int levelNumber) throws IOException {
+        Path source = Level.sourcePath(levelNumber);
+        Path binary = LevelBinary.binaryPath(levelNumber);
+        BasicFileAttributes attributes = Files.readAttributes(source, BasicFileAttributes.class);
+
+        Level level = LevelParser.parse(source.toFile());
+        if (LevelBinary.write(level, binary, attributes.size(), attributes.lastModifiedTime().toMillis())) {
+            logger.info("Converted " + source + " to " + binary + " (" + Files.size(binary) + " bytes)");
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package cz.cvut.fel.java.levels;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import cz.cvut.fel.java.characters.Player;
+import cz.cvut.fel.java.json.Json;
+import cz.cvut.fel.java.saves.SaveService;
+import cz.cvut.fel.java.saves.WorldSnapshot;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.logging.Logger;
+
+/**
+ * Prepares levels on a background thread, so the render thread keeps drawing while a level loads.
+ * The worker reads the game save and parses the level file, the save is written by the {@link SaveService}.
+ * Everything that needs the GL context (textures, fonts, characters with sprites) is created later on the render thread.
+ */
+public class LevelLoader {
+    private static final Logger logger = Logger.getLogger(LevelLoader.class.getName());
+
+    /**
+     * Service writing the game save of the selected slot.
+     */
+    private volatile SaveService saveService;
+
+    /**
+     * Worker preparing the levels one after another.
+     */
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "level-loader");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * @param saveService service writing the game save
+     */
+    public LevelLoader(SaveService saveService) {
+        this.saveService = saveService;
+    }
+
+    /**
+     * Switches to the save service of another slot. Levels prepared later read and write that slot.
+     *
+     * @param saveService service writing the game save of the selected slot
+     */
+    public void useSaveService(SaveService saveService) {
+        this.saveService = saveService;
+    }
+
+    /**
+     * Starts a new game from the first level with a default player.
+     *
+     * @return the level being prepared
+     */
+    public Future<LoadedLevel> loadNewGame() {
+        return executor.submit(() -> {
+            logger.info("New game -> create new save file");
+            ObjectNode gameData = Json.MAPPER.createObjectNode();
+            gameData.put("currentLevel", 1);
+            Player.saveDefaultPlayer(gameData);
+
+            saveService.save(gameData);
+            return prepare(gameData);
+        });
+    }
+
+    /**
+     * Continues the game from the save file and the autosaved world of its level.
+     *
+     * @return the level being prepared
+     */
+    public Future<LoadedLevel> loadSavedGame() {
+        return executor.submit(() -> {
+            logger.info("Load existing save file");
+            LoadedLevel loaded = prepare(saveService.read());
+
+            // Continue the level where it was autosaved
+            WorldSnapshot world = saveService.readWorld();
+            if (world != null && world.levelNumber == loaded.level.getLevelNumber()) {
+                return new LoadedLevel(loaded.gameData, loaded.level, world);
+            }
+            return loaded;
+        });
+    }
+
+    /**
+     * Saves the given game state and prepares the level it refers to.
+     *
+     * @param gameData the game save with the level number and the player's state
+     * @return the level being prepared
+     */
+    public Future<LoadedLevel> loadLevel(JsonNode gameData) {
+        saveService.save(gameData);
+        return executor.submit(() -> prepare(gameData));
+    }
+
+    /**
+     * Parses the level with the given number in the background, without touching the game save.
+     * Used to prepare the next level while the current one is played.
+     *
+     * @param levelNumber number of the level
+     * @return the level being parsed
+     */
+    public Future<Level> preloadLevel(int levelNumber) {
+        return executor.submit(() -> {
+            logger.info("Preloading level " + levelNumber);
+            return Level.createLevel(levelNumber);
+        });
+    }
+
+    /**
+     * Stops the worker, levels being prepared are abandoned.
+     */
+    public void dispose() {
+        executor.shutdownNow();
+    }
+
+    private LoadedLevel prepare(JsonNode gameData) {
+        Level level = Level.createLevel(gameData);
+        if (level.rooms.getSpawnRoom() == null) {
+            throw new IllegalStateException("Level " + gameData.get("currentLevel").asInt() + " has no spawn room");
+        }
+        return new LoadedLevel(gameData, level);
+    }
+}
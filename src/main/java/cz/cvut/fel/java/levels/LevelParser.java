@@ -0,0 +1,237 @@
+package cz.cvut.fel.java.levels;
+
+import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.IntArray;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import cz.cvut.fel.java.Rooms.Room;
+import cz.cvut.fel.java.Rooms.RoomType;
+import cz.cvut.fel.java.dto.DimensionsDto;
+import cz.cvut.fel.java.json.Json;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+
+/**
+ * Reads level files with the streaming Jackson parser. The rooms, their dimensions and enemy spawns
+ * are created directly from the tokens, no tree of the whole file is built, so the memory used
+ * does not grow with the size of the file beyond the created rooms.
+ *
+ * <p>The fields of a room may come in any order, so the values of one room are collected
+ * until the end of its object and the room is created from them.
+ */
+class LevelParser {
+    private LevelParser() {}
+
+    /**
+     * Parses the level file. The neighbors of the rooms are not linked yet.
+     *
+     * @param file the level JSON file
+     * @return the parsed level
+     * @throws IOException if the file cannot be read or is not a valid level
+     */
+    static Level parse(File file) throws IOException {
+        try (JsonParser parser = Json.factory().createParser(file)) {
+            expect(parser, parser.nextToken(), JsonToken.START_OBJECT);
+
+            Level level = new Level();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                parser.nextToken();
+
+                switch (field) {
+                    case "levelNumber" -> level.setLevelNumber(parser.getIntValue());
+                    case "map" -> level.setMap(parser.getText());
+                    case "rooms" -> readRooms(parser, level);
+                    default -> parser.skipChildren();
+                }
+            }
+            return level;
+        }
+    }
+
+    private static void readRooms(JsonParser parser, Level level) throws IOException {
+        if (parser.currentToken() == JsonToken.START_ARRAY) {
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                level.rooms.add(readRoom(parser));
+            }
+        } else if (parser.currentToken() == JsonToken.START_OBJECT) {
+            level.rooms.add(readRoom(parser));
+        } else {
+            parser.skipChildren();
+        }
+    }
+
+    private static Room readRoom(JsonParser parser) throws IOException {
+        RoomValues values = new RoomValues();
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+
+            switch (field) {
+                case "id" -> values.id = parser.getIntValue();
+                case "type" -> values.type = RoomType.fromName(parser.getText());
+                case "dimensions" -> values.dimensions = readDimensions(parser);
+                case "neighbors" -> {
+                    expect(parser, parser.currentToken(), JsonToken.START_ARRAY);
+                    while (parser.nextToken() != JsonToken.END_ARRAY) {
+                        values.neighborIds.add(parser.getIntValue());
+                    }
+                }
+                case "type_specific" -> readTypeSpecific(parser, values);
+                default -> parser.skipChildren();
+            }
+        }
+
+        return values.createRoom(parser);
+    }
+
+    private static DimensionsDto readDimensions(JsonParser parser) throws IOException {
+        expect(parser, parser.currentToken(), JsonToken.START_OBJECT);
+
+        float width = 0, height = 0, x = 0, y = 0;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+
+            switch (field) {
+                case "width" -> width = parser.getFloatValue();
+                case "height" -> height = parser.getFloatValue();
+                case "posX" -> x = parser.getFloatValue();
+                case "posY" -> y = parser.getFloatValue();
+                default -> parser.skipChildren();
+            }
+        }
+        return new DimensionsDto(width, height, x, y);
+    }
+
+    private static void readTypeSpecific(JsonParser parser, RoomValues values) throws IOException {
+        expect(parser, parser.currentToken(), JsonToken.START_OBJECT);
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+
+            switch (field) {
+                case "spawnPoint" -> values.spawnPoint = readPosition(parser, null);
+                case "portal" -> values.portal = readPosition(parser, null);
+                case "trader" -> values.trader = readPosition(parser, null);
+                case "boss" -> values.boss = readPosition(parser, null);
+                case "enemies" -> {
+                    if (parser.currentToken() == JsonToken.START_ARRAY) {
+                        while (parser.nextToken() == JsonToken.START_OBJECT) {
+                            readEnemy(parser, values);
+                        }
+                    } else if (parser.currentToken() == JsonToken.START_OBJECT) {
+                        readEnemy(parser, values);
+                    }
+                }
+                default -> parser.skipChildren();
+            }
+        }
+    }
+
+    private static void readEnemy(JsonParser parser, RoomValues values) throws IOException {
+        String[] type = new String[1];
+        float[] position = readPosition(parser, type);
+
+        values.enemyTypes.add(type[0]);
+        values.enemyPositions.add(position[0], position[1]);
+    }
+
+    /**
+     * Reads an object with the "posX" and "posY" fields.
+     *
+     * @param type array receiving the "type" field of the object, or null if the field is not expected
+     * @return the position
+     */
+    private static float[] readPosition(JsonParser parser, String[] type) throws IOException {
+        expect(parser, parser.currentToken(), JsonToken.START_OBJECT);
+
+        float[] position = new float[2];
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+
+            switch (field) {
+                case "posX" -> position[0] = parser.getFloatValue();
+                case "posY" -> position[1] = parser.getFloatValue();
+                case "type" -> {
+                    if (type != null) {
+                        type[0] = parser.getText();
+                    }
+                }
+                default -> parser.skipChildren();
+            }
+        }
+        return position;
+    }
+
+    private static void expect(JsonParser parser, JsonToken actual, JsonToken expected) throws JsonParseException {
+        if (actual != expected) {
+            throw new JsonParseException(parser, "Expected " + expected + " but found " + actual);
+        }
+    }
+
+    /**
+     * Values of one room collected while its object is read.
+     */
+    private static class RoomValues {
+        int id = -1;
+        RoomType type;
+        DimensionsDto dimensions;
+        final IntArray neighborIds = new IntArray();
+
+        float[] spawnPoint;
+        float[] portal;
+        float[] trader;
+        float[] boss;
+        final ArrayList<String> enemyTypes = new ArrayList<>();
+        final FloatArray enemyPositions = new FloatArray();
+
+        Room createRoom(JsonParser parser) throws JsonParseException {
+            if (type == null || dimensions == null || id < 0) {
+                throw new JsonParseException(parser, "Room " + id + " is missing its id, type or dimensions");
+            }
+
+            Room room = new Room(id, type, dimensions);
+            room.neighborsIds.addAll(neighborIds);
+
+            // Only the content belonging to the type of the room is used
+            switch (type) {
+                case SPAWN -> {
+                    if (spawnPoint != null) {
+                        room.setSpawnPoint(spawnPoint[0], spawnPoint[1]);
+                    }
+                }
+                case FIGHT -> {
+                    for (int i = 0; i < enemyTypes.size(); i++) {
+                        room.spawnEnemy(enemyTypes.get(i), enemyPositions.get(2 * i), enemyPositions.get(2 * i + 1));
+                    }
+                }
+                case PORTAL -> {
+                    if (portal != null) {
+                        room.setPortal(portal[0], portal[1]);
+                    }
+                }
+                case TRADER -> {
+                    if (trader != null) {
+                        room.setTraderPosition(trader[0], trader[1]);
+                    }
+                }
+                case BOSS -> {
+                    if (boss != null) {
+                        room.setBossPosition(boss[0], boss[1]);
+                    }
+                }
+                default -> {
+                    // Corridors have no specific content
+                }
+            }
+            return room;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package cz.cvut.fel.java.levels;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import cz.cvut.fel.java.saves.WorldSnapshot;
+
+/**
+ * Level prepared by the {@link LevelLoader} together with the game save it was loaded for.
+ * The characters of the rooms are created once the level is played, see {@link Level#createCharacters()}.
+ */
+public class LoadedLevel {
+    /**
+     * The game save with the level number and the player's state.
+     */
+    public final JsonNode gameData;
+
+    /**
+     * The parsed level.
+     */
+    public final Level level;
+
+    /**
+     * The autosaved state of the level in progress, null if the level starts over.
+     */
+    public final WorldSnapshot world;
+
+    public LoadedLevel(JsonNode gameData, Level level) {
+        this(gameData, level, null);
+    }
+
+    public LoadedLevel(JsonNode gameData, Level level, WorldSnapshot world) {
+        this.gameData = gameData;
+        this.level = level;
+        this.world = world;
+    }
+
+    /**
+     * @return internal path of the background texture of the level
+     */
+    public String getBackgroundPath() {
+        return level.getBackgroundPath();
+    }
+}
@@ -0,0 +1,51 @@
+package cz.cvut.fel.java.logging;
+
+import java.util.logging.Level;
+
+/**
+ * Events logged from the game loop through the {@link GameLog}. An event has a fixed message
+ * with up to three integer arguments {0}, {1} and {2}, so logging it only stores the numbers
+ * and the message is formatted later by the log thread.
+ */
+public enum GameEvent {
+    CHARACTER_DAMAGED(Level.FINE, "characters.Character", "Character took {0} damage, health {1}"),
+    PLAYER_DAMAGED(Level.INFO, "characters.Player", "Player took {0} damage, health {1}, armor {2}"),
+    PLAYER_HIT_BY_ENEMIES(Level.INFO, "characters.Enemies", "Player took {0} damage from {1} enemies"),
+    PLAYER_ATTACKED(Level.INFO, "simulation.Simulation", "Player attacked, stamina {0}, {1} enemies left"),
+    PLAYER_TRADED(Level.INFO, "screens.GameScreen", "Player traded, health {0}, armor {1}, balance {2}"),
+    ROOM_ACTIVATED(Level.INFO, "simulation.Simulation", "Room {0} is now active"),
+    DRAGON_PREPARING(Level.FINE, "characters.Dragon", "Dragon is preparing to attack at {0}, {1}"),
+    DRAGON_ATTACKING(Level.FINE, "characters.Dragon", "Dragon is attacking the player"),
+    DRAGON_HIT(Level.INFO, "characters.Dragon", "Dragon has attacked the player for {0} damage");
+
+    /**
+     * Level of the event, events below the level of the {@link GameLog} are not recorded.
+     */
+    final Level level;
+
+    /**
+     * Name of the logger the event is written to.
+     */
+    final String loggerName;
+
+    /**
+     * Message of the event with the placeholders of the arguments.
+     */
+    final String message;
+
+    GameEvent(Level level, String source, String message) {
+        this.level = level;
+        this.loggerName = "cz.cvut.fel.java." + source;
+        this.message = message;
+    }
+
+    /**
+     * @return the message with the placeholders replaced by the arguments
+     */
+    String format(int arg0, int arg1, int arg2) {
+        return message
+                .replace("{0}", Integer.toString(arg0))
+                .replace("{1}", Integer.toString(arg1))
+                .replace("{2}", Integer.toString(arg2));
+    }
+}
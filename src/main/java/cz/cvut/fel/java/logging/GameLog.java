@@ -0,0 +1,191 @@
+package cz.cvut.fel.java.logging;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Log of the game loop. Logging an event stores its code and integer arguments into a fixed-size
+ * ring buffer without locks or allocations, a background thread takes the events out of the ring,
+ * formats them and writes them to the {@link java.util.logging} loggers. The render thread therefore
+ * never formats messages or waits for the console.
+ *
+ * <p>Events below the level of the log are dropped before anything is stored. If the log thread
+ * falls behind and the ring is full, new events are dropped and counted.
+ */
+public final class GameLog {
+    private static final Logger logger = Logger.getLogger(GameLog.class.getName());
+
+    /**
+     * Number of events the ring holds, a power of two.
+     */
+    private static final int CAPACITY = 4096;
+    private static final int MASK = CAPACITY - 1;
+
+    /**
+     * Time in nanoseconds the log thread sleeps when the ring is empty.
+     */
+    private static final long DRAIN_INTERVAL_NANOS = 10_000_000L;
+
+    private static final GameEvent[] EVENTS = GameEvent.values();
+
+    // Columns of the ring, an event takes one slot of each
+    private static final int[] codes = new int[CAPACITY];
+    private static final int[] args0 = new int[CAPACITY];
+    private static final int[] args1 = new int[CAPACITY];
+    private static final int[] args2 = new int[CAPACITY];
+
+    /**
+     * Sequence number + 1 of the event published in each slot, so the log thread sees when a slot is complete.
+     */
+    private static final AtomicLongArray published = new AtomicLongArray(CAPACITY);
+
+    /**
+     * Sequence number of the next event to be logged.
+     */
+    private static final AtomicLong tail = new AtomicLong();
+
+    /**
+     * Sequence number of the next event to be written by the log thread.
+     */
+    private static final AtomicLong head = new AtomicLong();
+
+    /**
+     * Number of events dropped because the ring was full.
+     */
+    private static final AtomicLong dropped = new AtomicLong();
+
+    /**
+     * Number of dropped events already reported by the log thread.
+     */
+    private static long reportedDropped = 0;
+
+    /**
+     * Lowest level of the logged events, can be set with the system property {@code game.log.level}.
+     */
+    private static volatile int level = Level.parse(System.getProperty("game.log.level", "INFO")).intValue();
+
+    static {
+        Thread thread = new Thread(GameLog::drainLoop, "game-log");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private GameLog() {}
+
+    /**
+     * Sets the lowest level of the logged events.
+     *
+     * @param level the level
+     */
+    public static void setLevel(Level level) {
+        GameLog.level = level.intValue();
+    }
+
+    /**
+     * @param event the event
+     * @return true if the event would be logged
+     */
+    public static boolean isEnabled(GameEvent event) {
+        return event.level.intValue() >= level;
+    }
+
+    /**
+     * @return number of events dropped because the log thread fell behind
+     */
+    public static long getDropped() {
+        return dropped.get();
+    }
+
+    public static void log(GameEvent event) {
+        log(event, 0, 0, 0);
+    }
+
+    public static void log(GameEvent event, int arg0) {
+        log(event, arg0, 0, 0);
+    }
+
+    public static void log(GameEvent event, int arg0, int arg1) {
+        log(event, arg0, arg1, 0);
+    }
+
+    /**
+     * Logs the event with its arguments. Can be called from any thread.
+     *
+     * @param event the event
+     * @param arg0 the first argument of the message
+     * @param arg1 the second argument of the message
+     * @param arg2 the third argument of the message
+     */
+    public static void log(GameEvent event, int arg0, int arg1, int arg2) {
+        if (!isEnabled(event)) {
+            return;
+        }
+
+        // Claim a slot, unless the ring is full
+        long sequence;
+        do {
+            sequence = tail.get();
+            if (sequence - head.get() >= CAPACITY) {
+                dropped.incrementAndGet();
+                return;
+            }
+        } while (!tail.compareAndSet(sequence, sequence + 1));
+
+        int slot = (int) (sequence & MASK);
+        codes[slot] = event.ordinal();
+        args0[slot] = arg0;
+        args1[slot] = arg1;
+        args2[slot] = arg2;
+        // Publishing the slot makes the columns written above visible to the log thread
+        published.lazySet(slot, sequence + 1);
+    }
+
+    /**
+     * Writes all events logged so far. Called when the game exits, so the last events are not lost.
+     */
+    public static void flush() {
+        synchronized (GameLog.class) {
+            drain();
+        }
+    }
+
+    private static void drainLoop() {
+        while (true) {
+            synchronized (GameLog.class) {
+                drain();
+            }
+            LockSupport.parkNanos(DRAIN_INTERVAL_NANOS);
+        }
+    }
+
+    /**
+     * Writes the published events in order. Must be called by one thread at a time.
+     */
+    private static void drain() {
+        long sequence = head.get();
+        while (true) {
+            int slot = (int) (sequence & MASK);
+            if (published.get(slot) != sequence + 1) {
+                break;
+            }
+
+            GameEvent event = EVENTS[codes[slot]];
+            int arg0 = args0[slot];
+            int arg1 = args1[slot];
+            int arg2 = args2[slot];
+
+            // The slot can be reused once the head moves past it
+            head.lazySet(++sequence);
+            Logger.getLogger(event.loggerName).log(event.level, event.format(arg0, arg1, arg2));
+        }
+
+        long totalDropped = dropped.get();
+        if (totalDropped > reportedDropped) {
+            logger.warning((totalDropped - reportedDropped) + " game log events dropped");
+            reportedDropped = totalDropped;
+        }
+    }
+}
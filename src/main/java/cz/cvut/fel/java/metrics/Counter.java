@@ -0,0 +1,34 @@
+package cz.cvut.fel.java.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Metric counting events. Exported as the total and the increase since the last export.
+ */
+public class Counter extends Metric {
+    private final LongAdder total = new LongAdder();
+
+    /**
+     * Total at the last export, used by the export thread only.
+     */
+    private long exported = 0;
+
+    Counter(String name) {
+        super(name);
+    }
+
+    public void increment() {
+        total.increment();
+    }
+
+    public void add(long amount) {
+        total.add(amount);
+    }
+
+    @Override
+    void export(StringBuilder row) {
+        long sum = total.sum();
+        row.append("counter,").append(sum - exported).append(',').append(sum).append(",,,,");
+        exported = sum;
+    }
+}
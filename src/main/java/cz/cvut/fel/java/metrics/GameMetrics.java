@@ -0,0 +1,98 @@
+package cz.cvut.fel.java.metrics;
+
+import com.badlogic.gdx.graphics.Texture;
+import com.sun.management.GarbageCollectionNotificationInfo;
+
+import javax.management.NotificationEmitter;
+import javax.management.openmbean.CompositeData;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.logging.Logger;
+
+/**
+ * Metrics of the game. The frame metrics are recorded by {@link #frame(float)} from the render loop,
+ * the garbage collector pauses by a listener installed with {@link #installGcListener()}.
+ */
+public final class GameMetrics {
+    private static final Logger logger = Logger.getLogger(GameMetrics.class.getName());
+
+    public static final Histogram FRAME_TIME = Metrics.histogram("frame.time.us");
+    public static final Histogram FRAME_ALLOCATED = Metrics.histogram("frame.allocated.bytes");
+    public static final Histogram GC_PAUSE = Metrics.histogram("gc.pause.ms");
+    public static final Gauge LIVE_TEXTURES = Metrics.gauge("textures.live");
+    public static final Gauge LIVE_ENEMIES = Metrics.gauge("enemies.live");
+    public static final Histogram SAVE_LATENCY = Metrics.histogram("save.latency.us");
+    public static final Counter SAVE_FAILURES = Metrics.counter("save.failures");
+    public static final Histogram LEVEL_LOAD_LATENCY = Metrics.histogram("level.load.latency.us");
+
+    /**
+     * Allocation counter of the JVM, null if it cannot count the bytes allocated by a thread.
+     */
+    private static final com.sun.management.ThreadMXBean allocations = allocationCounter();
+
+    /**
+     * Bytes allocated by the render thread until the previous frame, -1 before the first frame.
+     */
+    private static long allocatedBefore = -1;
+
+    private static boolean gcListenerInstalled = false;
+
+    private GameMetrics() {}
+
+    /**
+     * Records the metrics of one frame. Must be called on the render thread once per frame.
+     *
+     * @param delta time since the last frame in seconds
+     */
+    public static void frame(float delta) {
+        FRAME_TIME.record((long) (delta * 1_000_000));
+        LIVE_TEXTURES.set(Texture.getNumManagedTextures());
+
+        if (allocations != null) {
+            long allocated = allocations.getCurrentThreadAllocatedBytes();
+            if (allocatedBefore >= 0) {
+                FRAME_ALLOCATED.record(allocated - allocatedBefore);
+            }
+            allocatedBefore = allocated;
+        }
+    }
+
+    /**
+     * Records the duration of every garbage collector pause into {@link #GC_PAUSE}.
+     * Concurrent collector cycles do not stop the game and are not recorded.
+     */
+    public static synchronized void installGcListener() {
+        if (gcListenerInstalled) {
+            return;
+        }
+        gcListenerInstalled = true;
+
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (!(collector instanceof NotificationEmitter emitter)) {
+                continue;
+            }
+            emitter.addNotificationListener((notification, handback) -> {
+                if (!GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) {
+                    return;
+                }
+                GarbageCollectionNotificationInfo info =
+                        GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+                if (info.getGcAction().contains("cycle") || info.getGcName().contains("Concurrent")) {
+                    return;
+                }
+                GC_PAUSE.record(info.getGcInfo().getDuration());
+            }, null, null);
+        }
+    }
+
+    private static com.sun.management.ThreadMXBean allocationCounter() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean counter && counter.isThreadAllocatedMemorySupported()) {
+            counter.setThreadAllocatedMemoryEnabled(true);
+            return counter;
+        }
+        logger.info("Allocations per frame are not measured, the JVM does not count them");
+        return null;
+    }
+}
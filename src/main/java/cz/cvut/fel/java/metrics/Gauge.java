@@ -0,0 +1,25 @@
+package cz.cvut.fel.java.metrics;
+
+/**
+ * Metric holding the last set value, e.g. the number of live objects.
+ */
+public class Gauge extends Metric {
+    private volatile long value = 0;
+
+    Gauge(String name) {
+        super(name);
+    }
+
+    public void set(long value) {
+        this.value = value;
+    }
+
+    public long get() {
+        return value;
+    }
+
+    @Override
+    void export(StringBuilder row) {
+        row.append("gauge,,").append(value).append(",,,,");
+    }
+}
@@ -0,0 +1,102 @@
+package cz.cvut.fel.java.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Metric recording the distribution of non-negative values, e.g. latencies. The values are counted in
+ * fixed buckets: values below 8 exactly, larger values in 8 buckets per power of two, so a percentile
+ * is off by at most 1/8 of the value. Recording does not allocate or lock.
+ *
+ * <p>Every export writes the count, mean, median, 99th percentile and maximum of the values recorded
+ * since the previous export and starts over.
+ */
+public class Histogram extends Metric {
+    private static final int SUB_BUCKETS = 8;
+    private static final int SUB_BITS = 3;
+    private static final int BUCKETS = (64 - SUB_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Scratch copy of the buckets, used by the export thread only.
+     */
+    private final long[] counts = new long[BUCKETS];
+
+    Histogram(String name) {
+        super(name);
+    }
+
+    /**
+     * Records a value, negative values are recorded as 0.
+     *
+     * @param value the value
+     */
+    public void record(long value) {
+        value = Math.max(value, 0);
+        buckets.incrementAndGet(bucket(value));
+        sum.add(value);
+        if (value > max.get()) {
+            max.accumulateAndGet(value, Math::max);
+        }
+    }
+
+    static int bucket(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    /**
+     * @return the highest value counted in the bucket
+     */
+    static long bucketMax(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int exponent = bucket / SUB_BUCKETS + SUB_BITS - 1;
+        long sub = bucket % SUB_BUCKETS;
+        long lower = (SUB_BUCKETS + sub) << (exponent - SUB_BITS);
+        return lower + (1L << (exponent - SUB_BITS)) - 1;
+    }
+
+    @Override
+    void export(StringBuilder row) {
+        // Values recorded during the export end up in this or the next row, none is lost
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets.getAndSet(i, 0);
+            count += counts[i];
+        }
+        long total = sum.sumThenReset();
+        long maximum = max.getAndSet(0);
+
+        row.append("histogram,").append(count).append(',');
+        if (count == 0) {
+            row.append(",,,,");
+            return;
+        }
+        row.append(',').append(total / count)
+                .append(',').append(Math.min(percentile(count, 0.5), maximum))
+                .append(',').append(Math.min(percentile(count, 0.99), maximum))
+                .append(',').append(maximum);
+    }
+
+    private long percentile(long count, double fraction) {
+        long rank = Math.max(1, (long) Math.ceil(count * fraction));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return bucketMax(i);
+            }
+        }
+        return bucketMax(BUCKETS - 1);
+    }
+}
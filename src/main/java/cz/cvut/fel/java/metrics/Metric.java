@@ -0,0 +1,23 @@
+package cz.cvut.fel.java.metrics;
+
+/**
+ * Named value recorded by the game and written by the {@link MetricsExporter}.
+ */
+public abstract class Metric {
+    /**
+     * Name of the metric, with the unit as the last part, e.g. {@code save.latency.us}.
+     */
+    public final String name;
+
+    Metric(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Appends the values of the metric since the last export to a CSV row, see {@link MetricsExporter#HEADER}.
+     * Called by the export thread only.
+     *
+     * @param row row after the timestamp and the name
+     */
+    abstract void export(StringBuilder row);
+}
@@ -0,0 +1,43 @@
+package cz.cvut.fel.java.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Registry of all metrics. The metrics are created once, usually as constants (see {@link GameMetrics}),
+ * and then updated from any thread.
+ */
+public final class Metrics {
+    private static final List<Metric> metrics = new ArrayList<>();
+
+    private Metrics() {}
+
+    public static Counter counter(String name) {
+        return register(new Counter(name));
+    }
+
+    public static Gauge gauge(String name) {
+        return register(new Gauge(name));
+    }
+
+    public static Histogram histogram(String name) {
+        return register(new Histogram(name));
+    }
+
+    private static synchronized <T extends Metric> T register(T metric) {
+        for (Metric registered : metrics) {
+            if (registered.name.equals(metric.name)) {
+                throw new IllegalArgumentException("Metric " + metric.name + " is already registered");
+            }
+        }
+        metrics.add(metric);
+        return metric;
+    }
+
+    /**
+     * @return copy of the registered metrics
+     */
+    static synchronized List<Metric> all() {
+        return new ArrayList<>(metrics);
+    }
+}
@@ -0,0 +1,162 @@
+package cz.cvut.fel.java.metrics;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Writes all {@link Metrics} to a CSV file on a background thread in a fixed interval, one row per metric.
+ * When the file grows over {@link #MAX_FILE_BYTES}, it is renamed to {@code metrics.1.csv}, the older files
+ * are shifted and the oldest one is deleted, so a long run keeps a bounded amount of data.
+ *
+ * <p>The export is enabled with the system property {@code game.metrics=true}. The directory and the
+ * interval in seconds can be set with {@code game.metrics.dir} and {@code game.metrics.interval}.
+ */
+public final class MetricsExporter {
+    private static final Logger logger = Logger.getLogger(MetricsExporter.class.getName());
+
+    static final String HEADER = "timestamp,metric,kind,count,value,mean,p50,p99,max";
+
+    private static final String FILE_NAME = "metrics";
+    private static final long MAX_FILE_BYTES = 8L * 1024 * 1024;
+
+    /**
+     * Number of rotated files kept besides the current one.
+     */
+    private static final int ROTATED_FILES = 4;
+
+    private static ScheduledExecutorService exporter;
+    private static Path directory;
+    private static BufferedWriter writer;
+    private static long fileBytes;
+
+    private MetricsExporter() {}
+
+    /**
+     * Starts the export if it is enabled by the system property {@code game.metrics}.
+     */
+    public static synchronized void startIfEnabled() {
+        if (exporter != null || !Boolean.getBoolean("game.metrics")) {
+            return;
+        }
+
+        directory = Path.of(System.getProperty("game.metrics.dir", "metrics"));
+        long interval = Long.getLong("game.metrics.interval", 10);
+
+        GameMetrics.installGcListener();
+        exporter = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "metrics-export");
+            thread.setDaemon(true);
+            return thread;
+        });
+        exporter.scheduleAtFixedRate(MetricsExporter::export, interval, interval, TimeUnit.SECONDS);
+        logger.info("Exporting metrics to " + directory.toAbsolutePath() + " every " + interval + " s");
+    }
+
+    /**
+     * Stops the export and writes the metrics recorded since the last export.
+     */
+    public static void stop() {
+        ScheduledExecutorService stopped;
+        synchronized (MetricsExporter.class) {
+            stopped = exporter;
+            exporter = null;
+        }
+        if (stopped == null) {
+            return;
+        }
+
+        stopped.shutdown();
+        try {
+            if (stopped.awaitTermination(2, TimeUnit.SECONDS)) {
+                export();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        closeWriter();
+    }
+
+    /**
+     * Writes one row of every metric. Runs on the export thread, or on the stopping thread after the export thread ended.
+     */
+    private static void export() {
+        try {
+            List<Metric> metrics = Metrics.all();
+            long timestamp = System.currentTimeMillis();
+
+            StringBuilder rows = new StringBuilder(64 * metrics.size());
+            for (Metric metric : metrics) {
+                rows.append(timestamp).append(',').append(metric.name).append(',');
+                metric.export(rows);
+                rows.append('\n');
+            }
+
+            if (writer == null || fileBytes >= MAX_FILE_BYTES) {
+                openWriter();
+            }
+            writer.write(rows.toString());
+            writer.flush();
+            fileBytes += rows.length();
+        } catch (IOException e) {
+            logger.warning("Failed to export metrics: " + e.getMessage());
+            closeWriter();
+        }
+    }
+
+    private static void openWriter() throws IOException {
+        closeWriter();
+        Files.createDirectories(directory);
+
+        Path current = file(0);
+        if (Files.exists(current) && Files.size(current) >= MAX_FILE_BYTES) {
+            rotate();
+        }
+
+        boolean newFile = !Files.exists(current);
+        writer = Files.newBufferedWriter(current, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        fileBytes = Files.size(current);
+        if (newFile) {
+            writer.write(HEADER + "\n");
+            fileBytes += HEADER.length() + 1;
+        }
+    }
+
+    private static void rotate() throws IOException {
+        Files.deleteIfExists(file(ROTATED_FILES));
+        for (int i = ROTATED_FILES - 1; i >= 0; i--) {
+            if (Files.exists(file(i))) {
+                Files.move(file(i), file(i + 1), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+    }
+
+    /**
+     * @param index 0 for the current file, the rotated files are numbered from 1, the higher the older
+     */
+    private static Path file(int index) {
+        return directory.resolve(index == 0 ? FILE_NAME + ".csv" : FILE_NAME + "." + index + ".csv");
+    }
+
+    private static void closeWriter() {
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.close();
+        } catch (IOException e) {
+            logger.warning("Failed to close the metrics file: " + e.getMessage());
+        }
+        writer = null;
+    }
+}
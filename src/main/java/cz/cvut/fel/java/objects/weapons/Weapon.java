@@ -4,8 +4,8 @@ import lombok.Getter;
 
 /**
  * Class represents a weapon with specific attributes
- * such as range, stamina cost, and damage. These attributes vary depending
- * on the weapon type provided during construction.
+ * such as range, stamina cost, and damage. These attributes are given
+ * by the {@link WeaponType} of the weapon.
  *
  * <p>Supported weapon types include:
  * <ul>
@@ -17,42 +17,46 @@ import lombok.Getter;
 public class Weapon {
 
     /**
-     * The type of the weapon.
+     * The kind of the weapon.
      */
-    @Getter private float range;
+    @Getter private final WeaponType type;
 
     /**
-     * The stamina cost associated with using the weapon.
-     */
-    @Getter private float staminaCost;
-
-    /**
-     * The damage dealt by the weapon.
+     * Constructs a weapon of the given kind.
+     *
+     * @param type the kind of the weapon
      */
-    @Getter private int damage;
+    public Weapon(WeaponType type) {
+        this.type = type;
+    }
 
     /**
-     * Constructs a weapon with specific attributes based on the provided type.
+     * Constructs a weapon of the kind with the given name from the {@link WeaponTypes} registry.
      *
      * @param type the type of the weapon ("dagger", "axe", "sword", "sword2")
      */
     public Weapon(String type) {
-        if (type.equals("dagger")) {
-            damage = 10;
-            range = 10f;
-        } else if (type.equals("axe")) {
-            damage = 25;
-            range = 20f;
-        } else if (type.equals("sword")) {
-            damage = 1000;
-            range = 15f;
-            staminaCost = 10;
-        } else if (type.equals("sword2")) {
-            damage = 30;
-            range = 20f;
-            staminaCost = 15;
-        } else {
-            // TODO LOG
-        }
+        this(WeaponTypes.get(type));
+    }
+
+    /**
+     * @return the range of the weapon
+     */
+    public float getRange() {
+        return type.range();
+    }
+
+    /**
+     * @return the stamina cost associated with using the weapon
+     */
+    public float getStaminaCost() {
+        return type.staminaCost();
+    }
+
+    /**
+     * @return the damage dealt by the weapon
+     */
+    public int getDamage() {
+        return type.damage();
     }
 }
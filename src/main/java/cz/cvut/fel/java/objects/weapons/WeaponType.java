@@ -0,0 +1,12 @@
+package cz.cvut.fel.java.objects.weapons;
+
+/**
+ * Immutable definition of a kind of weapon shared by all weapons of the kind.
+ *
+ * @param name the name of the kind ("dagger", "axe", "sword", "sword2")
+ * @param damage the damage dealt by the weapon
+ * @param range the range of the weapon
+ * @param staminaCost the stamina cost associated with using the weapon
+ */
+public record WeaponType(String name, int damage, float range, float staminaCost) {
+}
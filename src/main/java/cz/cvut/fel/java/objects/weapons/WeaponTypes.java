@@ -0,0 +1,40 @@
+package cz.cvut.fel.java.objects.weapons;
+
+import cz.cvut.fel.java.catalog.ArchetypeCatalog;
+
+import java.util.HashMap;
+
+/**
+ * Registry of all weapon kinds by their name, loaded once from the {@link ArchetypeCatalog}.
+ */
+public final class WeaponTypes {
+    private static final HashMap<String, WeaponType> TYPES = new HashMap<>();
+
+    private WeaponTypes() {}
+
+    /**
+     * Adds a weapon kind to the registry, replacing a kind with the same name.
+     *
+     * @param type the weapon kind
+     */
+    public static void register(WeaponType type) {
+        TYPES.put(type.name(), type);
+    }
+
+    /**
+     * Returns the weapon kind with the given name.
+     *
+     * @param name name of the kind ("dagger", "axe", "sword", "sword2")
+     * @return the weapon kind
+     * @throws IllegalArgumentException if there is no kind with the name
+     */
+    public static WeaponType get(String name) {
+        ArchetypeCatalog.ensureLoaded();
+
+        WeaponType type = TYPES.get(name);
+        if (type == null) {
+            throw new IllegalArgumentException("Unknown weapon type: " + name);
+        }
+        return type;
+    }
+}
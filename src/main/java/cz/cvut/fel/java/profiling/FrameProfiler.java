@@ -0,0 +1,138 @@
+package cz.cvut.fel.java.profiling;
+
+import java.util.Arrays;
+
+/**
+ * Records how long the stages of the last frames took. The time of a stage is summed over a frame
+ * (a frame may run several simulation steps) and stored in a preallocated ring of the last
+ * {@link #WINDOW} frames, so recording does not allocate.
+ *
+ * <p>While the profiler is disabled, {@link #start()} and {@link #stop} only check a flag and do not read the clock.
+ * The profiler is used from the render thread only.
+ */
+public final class FrameProfiler {
+    /**
+     * Number of frames the statistics are computed over, a power of two.
+     */
+    public static final int WINDOW = 256;
+    private static final int MASK = WINDOW - 1;
+
+    private static final ProfileStage[] STAGES = ProfileStage.values();
+
+    /**
+     * Stage times of the last frames in nanoseconds, indexed by the stage and the frame.
+     */
+    private static final long[][] samples = new long[STAGES.length][WINDOW];
+
+    /**
+     * Stage times of the frame in progress in nanoseconds.
+     */
+    private static final long[] current = new long[STAGES.length];
+
+    /**
+     * Scratch copy of one stage's samples sorted for the percentile.
+     */
+    private static final long[] sorted = new long[WINDOW];
+
+    private static boolean enabled = false;
+
+    /**
+     * Number of frames recorded since the profiler was enabled.
+     */
+    private static int frames = 0;
+
+    private FrameProfiler() {}
+
+    /**
+     * @return true if the stages are timed
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Enables or disables timing. Enabling starts with empty statistics.
+     *
+     * @param enabled true to time the stages
+     */
+    public static void setEnabled(boolean enabled) {
+        if (enabled && !FrameProfiler.enabled) {
+            for (long[] stageSamples : samples) {
+                Arrays.fill(stageSamples, 0);
+            }
+            Arrays.fill(current, 0);
+            frames = 0;
+        }
+        FrameProfiler.enabled = enabled;
+    }
+
+    /**
+     * Starts timing a stage.
+     *
+     * @return the start time to pass to {@link #stop}, 0 if the profiler is disabled
+     */
+    public static long start() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Stops timing a stage and adds the time to the stage in the current frame.
+     *
+     * @param stage the timed stage
+     * @param start the time returned by {@link #start()}
+     */
+    public static void stop(ProfileStage stage, long start) {
+        if (enabled) {
+            current[stage.ordinal()] += System.nanoTime() - start;
+        }
+    }
+
+    /**
+     * Ends the current frame and stores its stage times.
+     */
+    public static void endFrame() {
+        if (!enabled) {
+            return;
+        }
+
+        int slot = frames & MASK;
+        for (int i = 0; i < current.length; i++) {
+            samples[i][slot] = current[i];
+            current[i] = 0;
+        }
+        frames++;
+    }
+
+    /**
+     * @return number of frames the statistics are computed over
+     */
+    public static int sampleCount() {
+        return Math.min(frames, WINDOW);
+    }
+
+    /**
+     * Computes the statistics of the stage over the recorded frames.
+     *
+     * @param stage the stage
+     * @param out array receiving the average, the 99th percentile and the maximum in nanoseconds
+     */
+    public static void summarize(ProfileStage stage, long[] out) {
+        int count = sampleCount();
+        if (count == 0) {
+            Arrays.fill(out, 0);
+            return;
+        }
+
+        long[] stageSamples = samples[stage.ordinal()];
+        System.arraycopy(stageSamples, 0, sorted, 0, count);
+        Arrays.sort(sorted, 0, count);
+
+        long sum = 0;
+        for (int i = 0; i < count; i++) {
+            sum += sorted[i];
+        }
+        out[0] = sum / count;
+        out[1] = sorted[Math.min(count - 1, (int) Math.ceil(count * 0.99) - 1)];
+        out[2] = sorted[count - 1];
+    }
+}
@@ -0,0 +1,24 @@
+package cz.cvut.fel.java.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event of reading a level file and linking its rooms.
+ */
+@Name("cz.cvut.fel.java.LevelLoad")
+@Label("Level Load")
+@Category({"Dungeon Game", "Loading"})
+@Description("A level was read from its binary or JSON file")
+public class LevelLoadEvent extends jdk.jfr.Event {
+    @Label("Level")
+    public int levelNumber;
+
+    @Label("Rooms")
+    public int roomCount;
+
+    @Label("Succeeded")
+    public boolean succeeded;
+}
@@ -0,0 +1,24 @@
+package cz.cvut.fel.java.profiling;
+
+/**
+ * Named parts of a frame timed by the {@link FrameProfiler}. Stages may be nested,
+ * e.g. the enemy stages are part of the simulation.
+ */
+public enum ProfileStage {
+    FRAME("frame"),
+    INPUT("input"),
+    SIMULATION("simulation"),
+    ENEMY_MOVE("enemy move"),
+    ENEMY_ATTACK("enemy attack"),
+    DRAGON("dragon"),
+    RENDER("render");
+
+    /**
+     * Name of the stage shown in the overlay.
+     */
+    public final String label;
+
+    ProfileStage(String label) {
+        this.label = label;
+    }
+}
@@ -0,0 +1,102 @@
+package cz.cvut.fel.java.profiling;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.profiling.GLProfiler;
+
+/**
+ * Overlay showing the statistics of the {@link FrameProfiler} stages and the draw calls
+ * and texture bindings of the last frame counted by a {@link GLProfiler}.
+ * The text is rebuilt only every few frames into a reused builder.
+ */
+public class ProfilerOverlay {
+    /**
+     * Number of frames between two updates of the shown text.
+     */
+    private static final int REFRESH_FRAMES = 15;
+
+    private static final float MARGIN = 10f;
+
+    private final BitmapFont font;
+    private final GLProfiler glProfiler;
+    private final StringBuilder text = new StringBuilder(512);
+    private final long[] stats = new long[3];
+
+    private int framesSinceRefresh = REFRESH_FRAMES;
+    private int drawCalls;
+    private int textureBindings;
+
+    public ProfilerOverlay() {
+        this.font = new BitmapFont();
+        this.font.setColor(Color.YELLOW);
+
+        this.glProfiler = new GLProfiler(Gdx.graphics);
+        if (FrameProfiler.isEnabled()) {
+            glProfiler.enable();
+        }
+    }
+
+    /**
+     * Turns the profiling and the overlay on or off.
+     */
+    public void toggle() {
+        boolean enabled = !FrameProfiler.isEnabled();
+        FrameProfiler.setEnabled(enabled);
+        if (enabled) {
+            glProfiler.enable();
+            glProfiler.reset();
+            framesSinceRefresh = REFRESH_FRAMES;
+        } else {
+            glProfiler.disable();
+        }
+    }
+
+    /**
+     * Draws the overlay if the profiler is enabled. Must be called after the scene is drawn,
+     * so the GL counters hold the whole frame.
+     *
+     * @param batch the sprite batch, not begun
+     */
+    public void render(SpriteBatch batch) {
+        if (!FrameProfiler.isEnabled()) {
+            return;
+        }
+
+        // The counters hold the calls since the last reset, i.e. the scene of this frame and the last overlay
+        drawCalls = glProfiler.getDrawCalls();
+        textureBindings = glProfiler.getTextureBindings();
+        glProfiler.reset();
+
+        if (++framesSinceRefresh >= REFRESH_FRAMES) {
+            framesSinceRefresh = 0;
+            rebuildText();
+        }
+
+        batch.begin();
+        font.draw(batch, text, MARGIN, Gdx.graphics.getHeight() - MARGIN);
+        batch.end();
+    }
+
+    private void rebuildText() {
+        text.setLength(0);
+        text.append("stage: avg / p99 / max [us] over ").append(FrameProfiler.sampleCount()).append(" frames\n");
+
+        for (ProfileStage stage : ProfileStage.values()) {
+            FrameProfiler.summarize(stage, stats);
+            text.append(stage.label).append(": ")
+                    .append(stats[0] / 1000).append(" / ")
+                    .append(stats[1] / 1000).append(" / ")
+                    .append(stats[2] / 1000).append('\n');
+        }
+
+        text.append("draw calls: ").append(drawCalls)
+                .append(", texture bindings: ").append(textureBindings);
+    }
+
+    public void dispose() {
+        glProfiler.disable();
+        font.dispose();
+    }
+}
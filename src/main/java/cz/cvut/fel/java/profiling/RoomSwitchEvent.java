@@ -0,0 +1,32 @@
+package cz.cvut.fel.java.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event of the player moving to another room.
+ */
+@Name("cz.cvut.fel.java.RoomSwitch")
+@Label("Room Switch")
+@Category({"Dungeon Game", "Simulation"})
+@Description("The player moved to a neighboring room")
+@StackTrace(false)
+public class RoomSwitchEvent extends jdk.jfr.Event {
+    @Label("Level")
+    public int levelNumber;
+
+    @Label("From Room")
+    public int fromRoomId;
+
+    @Label("To Room")
+    public int toRoomId;
+
+    @Label("To Room Type")
+    public String toRoomType;
+
+    @Label("First Visit")
+    public boolean firstVisit;
+}
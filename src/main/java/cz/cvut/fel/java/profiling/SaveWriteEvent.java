@@ -0,0 +1,27 @@
+package cz.cvut.fel.java.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event of the save writer encoding and writing one save file.
+ */
+@Name("cz.cvut.fel.java.SaveWrite")
+@Label("Save Write")
+@Category({"Dungeon Game", "Saving"})
+@Description("A game save or a world snapshot was encoded and written")
+public class SaveWriteEvent extends jdk.jfr.Event {
+    @Label("Slot")
+    public String slot;
+
+    @Label("Kind")
+    @Description("game, world full or world delta")
+    public String kind;
+
+    @Label("Size")
+    @DataAmount
+    public long bytes;
+}
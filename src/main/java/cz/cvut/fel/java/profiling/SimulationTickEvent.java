@@ -0,0 +1,30 @@
+package cz.cvut.fel.java.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event of one simulation step of the game screen.
+ */
+@Name("cz.cvut.fel.java.SimulationTick")
+@Label("Simulation Tick")
+@Category({"Dungeon Game", "Simulation"})
+@Description("One fixed simulation step of the level being played")
+@StackTrace(false)
+public class SimulationTickEvent extends jdk.jfr.Event {
+    @Label("Level")
+    public int levelNumber;
+
+    @Label("Room")
+    public int roomId;
+
+    @Label("Room Type")
+    public String roomType;
+
+    @Label("Enemies")
+    @Description("Number of enemies alive in the current room")
+    public int enemyCount;
+}
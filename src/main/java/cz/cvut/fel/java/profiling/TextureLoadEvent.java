@@ -0,0 +1,28 @@
+package cz.cvut.fel.java.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event of one part of loading a texture.
+ */
+@Name("cz.cvut.fel.java.TextureLoad")
+@Label("Texture Load")
+@Category({"Dungeon Game", "Loading"})
+@Description("A texture was decoded, uploaded to the GPU or packed into an atlas")
+public class TextureLoadEvent extends jdk.jfr.Event {
+    @Label("Path")
+    public String path;
+
+    @Label("Stage")
+    @Description("decode (background thread), upload (render thread) or pack (render thread)")
+    public String stage;
+
+    @Label("Width")
+    public int width;
+
+    @Label("Height")
+    public int height;
+}
@@ -0,0 +1,17 @@
+package cz.cvut.fel.java.rendering;
+
+/**
+ * Layers of the {@link RenderQueue}. Layers are drawn in the order they are declared,
+ * and in every layer sprites are drawn before shapes.
+ */
+public enum RenderLayer {
+    /**
+     * Level background with the room bounds and curtains over it.
+     */
+    WORLD,
+
+    /**
+     * Characters with their bars, attack areas and portals over them.
+     */
+    ENTITIES
+}
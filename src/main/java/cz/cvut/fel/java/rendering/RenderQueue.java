@@ -0,0 +1,264 @@
+package cz.cvut.fel.java.rendering;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.Sprite;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Sort;
+
+import java.util.Comparator;
+
+/**
+ * Collects the sprite and shape draw commands of one frame and draws them together.
+ * Commands are sorted by layer, then sprites by texture and shapes by shape type,
+ * so every layer begins and ends the sprite batch and the shape renderer only once.
+ *
+ * <p>Commands are pooled and reused between frames, so queueing does not allocate
+ * once the queue has grown to the size of a frame.
+ */
+public class RenderQueue {
+    /**
+     * Orders sprite commands by layer and texture, keeping the queueing order otherwise.
+     */
+    private static final Comparator<SpriteCommand> SPRITE_ORDER = (a, b) -> {
+        if (a.layer != b.layer) {
+            return a.layer.ordinal() - b.layer.ordinal();
+        }
+        if (a.textureHandle != b.textureHandle) {
+            return Integer.compare(a.textureHandle, b.textureHandle);
+        }
+        return Integer.compare(a.sequence, b.sequence);
+    };
+
+    /**
+     * Orders shape commands by layer and shape type, keeping the queueing order otherwise.
+     */
+    private static final Comparator<ShapeCommand> SHAPE_ORDER = (a, b) -> {
+        if (a.layer != b.layer) {
+            return a.layer.ordinal() - b.layer.ordinal();
+        }
+        if (a.type != b.type) {
+            return a.type.ordinal() - b.type.ordinal();
+        }
+        return Integer.compare(a.sequence, b.sequence);
+    };
+
+    private final Array<SpriteCommand> sprites = new Array<>(false, 64, SpriteCommand.class);
+    private final Array<ShapeCommand> shapes = new Array<>(false, 64, ShapeCommand.class);
+
+    /**
+     * Number of sprite and shape commands queued in the current frame.
+     */
+    private int spriteCount;
+    private int shapeCount;
+
+    /**
+     * Queues a sprite drawn with its own position, size and region.
+     *
+     * @param layer layer of the sprite
+     * @param sprite sprite to draw
+     */
+    public void sprite(RenderLayer layer, Sprite sprite) {
+        SpriteCommand command = nextSprite(layer, sprite.getTexture());
+        command.sprite = sprite;
+    }
+
+    /**
+     * Queues a sprite drawn with its own size and region at the given position.
+     *
+     * @param layer layer of the sprite
+     * @param sprite sprite to draw
+     * @param x rendered x position of the sprite
+     * @param y rendered y position of the sprite
+     */
+    public void sprite(RenderLayer layer, Sprite sprite, float x, float y) {
+        SpriteCommand command = nextSprite(layer, sprite.getTexture());
+        command.region = sprite;
+        command.x = x;
+        command.y = y;
+        command.width = sprite.getWidth();
+        command.height = sprite.getHeight();
+    }
+
+    /**
+     * Queues a texture region drawn stretched over the given rectangle.
+     *
+     * @param layer layer of the region
+     * @param region region to draw
+     */
+    public void region(RenderLayer layer, TextureRegion region, float x, float y, float width, float height) {
+        SpriteCommand command = nextSprite(layer, region.getTexture());
+        command.region = region;
+        command.x = x;
+        command.y = y;
+        command.width = width;
+        command.height = height;
+    }
+
+    /**
+     * Queues a whole texture drawn stretched over the given rectangle.
+     *
+     * @param layer layer of the texture
+     * @param texture texture to draw
+     */
+    public void texture(RenderLayer layer, Texture texture, float x, float y, float width, float height) {
+        SpriteCommand command = nextSprite(layer, texture);
+        command.texture = texture;
+        command.x = x;
+        command.y = y;
+        command.width = width;
+        command.height = height;
+    }
+
+    /**
+     * Queues a rectangle drawn by the shape renderer.
+     *
+     * @param layer layer of the rectangle
+     * @param type whether the rectangle is filled or only outlined
+     * @param color color of the rectangle
+     */
+    public void rect(RenderLayer layer, ShapeRenderer.ShapeType type, Color color,
+                     float x, float y, float width, float height) {
+        if (shapeCount == shapes.size) {
+            shapes.add(new ShapeCommand());
+        }
+        ShapeCommand command = shapes.items[shapeCount];
+        command.sequence = shapeCount++;
+        command.layer = layer;
+        command.type = type;
+        command.color = color;
+        command.x = x;
+        command.y = y;
+        command.width = width;
+        command.height = height;
+    }
+
+    /**
+     * Draws all queued commands and clears the queue for the next frame.
+     * The sprite batch must not be drawing when this method is called.
+     *
+     * @param batch batch used for the sprites
+     * @param shapeRenderer renderer used for the shapes, it uses the projection of the batch
+     */
+    public void flush(SpriteBatch batch, ShapeRenderer shapeRenderer) {
+        sortQueued();
+
+        shapeRenderer.setProjectionMatrix(batch.getProjectionMatrix());
+
+        int spriteIndex = 0;
+        int shapeIndex = 0;
+        for (RenderLayer layer : RenderLayer.values()) {
+            spriteIndex = flushSprites(layer, spriteIndex, batch);
+            shapeIndex = flushShapes(layer, shapeIndex, shapeRenderer);
+        }
+
+        clear();
+    }
+
+    /**
+     * Drops all queued commands without drawing them.
+     */
+    public void clear() {
+        for (int i = 0; i < spriteCount; i++) {
+            sprites.items[i].sprite = null;
+            sprites.items[i].region = null;
+            sprites.items[i].texture = null;
+        }
+        spriteCount = 0;
+        shapeCount = 0;
+    }
+
+    private SpriteCommand nextSprite(RenderLayer layer, Texture texture) {
+        if (spriteCount == sprites.size) {
+            sprites.add(new SpriteCommand());
+        }
+        SpriteCommand command = sprites.items[spriteCount];
+        command.sequence = spriteCount++;
+        command.layer = layer;
+        command.textureHandle = texture.getTextureObjectHandle();
+        command.sprite = null;
+        command.region = null;
+        command.texture = null;
+        return command;
+    }
+
+    private void sortQueued() {
+        // Only the commands of the current frame are sorted, the rest of the pool is kept at the end
+        Sort.instance().sort(sprites.items, SPRITE_ORDER, 0, spriteCount);
+        Sort.instance().sort(shapes.items, SHAPE_ORDER, 0, shapeCount);
+    }
+
+    private int flushSprites(RenderLayer layer, int from, SpriteBatch batch) {
+        int to = from;
+        while (to < spriteCount && sprites.items[to].layer == layer) {
+            to++;
+        }
+        if (to == from) {
+            return to;
+        }
+
+        batch.begin();
+        for (int i = from; i < to; i++) {
+            SpriteCommand command = sprites.items[i];
+            if (command.sprite != null) {
+                command.sprite.draw(batch);
+            } else if (command.region != null) {
+                batch.draw(command.region, command.x, command.y, command.width, command.height);
+            } else {
+                batch.draw(command.texture, command.x, command.y, command.width, command.height);
+            }
+        }
+        batch.end();
+        return to;
+    }
+
+    private int flushShapes(RenderLayer layer, int from, ShapeRenderer shapeRenderer) {
+        int to = from;
+        while (to < shapeCount && shapes.items[to].layer == layer) {
+            to++;
+        }
+        if (to == from) {
+            return to;
+        }
+
+        shapeRenderer.begin(shapes.items[from].type);
+        for (int i = from; i < to; i++) {
+            ShapeCommand command = shapes.items[i];
+            // Switching the type flushes the renderer, the commands are sorted so it happens once per type
+            shapeRenderer.set(command.type);
+            shapeRenderer.setColor(command.color);
+            shapeRenderer.rect(command.x, command.y, command.width, command.height);
+        }
+        shapeRenderer.end();
+        return to;
+    }
+
+    /**
+     * Queued sprite or texture draw.
+     */
+    private static class SpriteCommand {
+        private RenderLayer layer;
+        private int textureHandle;
+        private int sequence;
+
+        private Sprite sprite;
+        private TextureRegion region;
+        private Texture texture;
+        private float x, y, width, height;
+    }
+
+    /**
+     * Queued rectangle draw.
+     */
+    private static class ShapeCommand {
+        private RenderLayer layer;
+        private ShapeRenderer.ShapeType type;
+        private int sequence;
+
+        private Color color;
+        private float x, y, width, height;
+    }
+}
@@ -0,0 +1,344 @@
+package cz.cvut.fel.java.saves;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import cz.cvut.fel.java.io.AtomicFiles;
+import cz.cvut.fel.java.json.Json;
+import cz.cvut.fel.java.metrics.GameMetrics;
+import cz.cvut.fel.java.profiling.SaveWriteEvent;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Logger;
+
+/**
+ * Writes the game save on a background thread, so saving never blocks the render thread.
+ *
+ * <p>The caller builds the save on the game thread (e.g. with {@link cz.cvut.fel.java.characters.Player#savePlayer})
+ * and hands it over, the node must not be changed afterwards. Saves requested faster than they are
+ * written are coalesced, only the latest one is written. A save is written to a temporary file,
+ * synced to the disk and then atomically renamed over the save file (see {@link AtomicFiles}),
+ * so a crash never corrupts the save.
+ *
+ * <p>A save service writes one {@link SaveSlots save slot} and records every written game save
+ * in the slot index. The game save holds the level and the player at the start of the level. The level in progress is
+ * autosaved as {@link WorldSnapshot world snapshots} next to it: a full snapshot is written first,
+ * later autosaves write only the delta against it, until the delta grows too large.
+ */
+public class SaveService {
+    private static final Logger logger = Logger.getLogger(SaveService.class.getName());
+
+    /**
+     * Time in seconds {@link #dispose()} waits for the last save to be written.
+     */
+    private static final long DISPOSE_TIMEOUT_SECONDS = 2;
+
+    /**
+     * Number of deltas written against one full world snapshot before a new full snapshot is written.
+     */
+    private static final int DELTAS_PER_FULL_SNAPSHOT = 24;
+
+    private final SaveSlots slots;
+    private final String slot;
+
+    private final Path path;
+    private final Path worldPath;
+    private final Path worldDeltaPath;
+
+    /**
+     * Worker writing the saves one after another.
+     */
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "save-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * The latest save not taken by the writer yet, null if there is none.
+     */
+    private final AtomicReference<JsonNode> pending = new AtomicReference<>();
+
+    /**
+     * The latest world snapshot not taken by the writer yet, null if there is none.
+     */
+    private final AtomicReference<PendingWorld> pendingWorld = new AtomicReference<>();
+
+    /**
+     * Number of requested deletions of the world snapshots. A snapshot belongs to the generation
+     * it was requested in, the snapshots of older generations are dropped.
+     */
+    private final AtomicInteger worldGeneration = new AtomicInteger();
+
+    /**
+     * Generation whose deletion was carried out by the writer. It lags behind {@link #worldGeneration}
+     * while a deletion is queued.
+     */
+    private volatile int clearedGeneration;
+
+    // The last full world snapshot written, the deltas are encoded against it. Used by the writer only.
+    private WorldSnapshot worldBase;
+    private long worldBaseId;
+    private int worldBaseSize;
+    private int deltasWritten;
+
+    /**
+     * @param slots catalog of the save slots
+     * @param slot name of the slot written by this service
+     */
+    public SaveService(SaveSlots slots, String slot) {
+        this.slots = slots;
+        this.slot = slot;
+        this.path = slots.savePath(slot);
+        this.worldPath = path.resolveSibling("world.bin");
+        this.worldDeltaPath = path.resolveSibling("world.delta");
+    }
+
+    /**
+     * @return name of the slot written by this service
+     */
+    public String getSlot() {
+        return slot;
+    }
+
+    /**
+     * Requests the given save to be written in the background. If an earlier save is still waiting,
+     * it is replaced by this one. The game save starts a level, so the world snapshots are deleted.
+     *
+     * @param gameData the game save with the level number and the player's state
+     */
+    public void save(JsonNode gameData) {
+        clearWorld();
+
+        // Only the request finding no waiting save schedules a write, the others just replace the save
+        if (pending.getAndSet(gameData) == null) {
+            writer.execute(() -> writePending(pending, this::writeSave));
+        }
+    }
+
+    /**
+     * Requests the world snapshot to be written in the background. If an earlier snapshot is still waiting,
+     * it is replaced by this one.
+     *
+     * @param snapshot the captured world, it must not be changed afterwards
+     */
+    public void saveWorld(WorldSnapshot snapshot) {
+        if (pendingWorld.getAndSet(new PendingWorld(snapshot, worldGeneration.get())) == null) {
+            writer.execute(this::writePendingWorld);
+        }
+    }
+
+    /**
+     * Deletes the world snapshots, e.g. when the player dies. Snapshots requested before are dropped.
+     * The files are deleted by the writer in the order of the requests, so a snapshot requested afterwards
+     * is written after the deletion.
+     */
+    public void clearWorld() {
+        int generation = worldGeneration.incrementAndGet();
+        writer.execute(() -> deleteWorld(generation));
+    }
+
+    /**
+     * Deletes the world snapshots on the writer, unless the deletion of the generation was already
+     * carried out for a snapshot requested after it.
+     */
+    private void deleteWorld(int generation) {
+        if (generation <= clearedGeneration) {
+            return;
+        }
+        clearedGeneration = generation;
+        worldBase = null;
+        try {
+            Files.deleteIfExists(worldDeltaPath);
+            Files.deleteIfExists(worldPath);
+        } catch (IOException e) {
+            logger.warning("Failed to delete world snapshot: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Reads the game save. A save that was requested but not written yet is returned as it is.
+     *
+     * @return the game save
+     * @throws IOException if the save file cannot be read
+     */
+    public JsonNode read() throws IOException {
+        JsonNode waiting = pending.get();
+        if (waiting != null) {
+            return waiting;
+        }
+        byte[] bytes = Files.readAllBytes(path);
+        if (!slots.verify(slot, bytes)) {
+            logger.warning("Save " + path + " does not match its checksum in the save index");
+        }
+        return Json.MAPPER.readTree(bytes);
+    }
+
+    /**
+     * Reads the latest world snapshot. A snapshot that was requested but not written yet is returned as it is.
+     *
+     * @return the snapshot, or null if there is none or it cannot be read
+     */
+    public WorldSnapshot readWorld() {
+        int generation = worldGeneration.get();
+        PendingWorld waiting = pendingWorld.get();
+        if (waiting != null && waiting.generation() == generation) {
+            return waiting.snapshot();
+        }
+        // The files are about to be deleted
+        if (clearedGeneration != generation || !Files.isRegularFile(worldPath)) {
+            return null;
+        }
+
+        try {
+            ByteBuffer full = ByteBuffer.wrap(Files.readAllBytes(worldPath));
+            WorldSnapshot snapshot = WorldCodec.decodeFull(full);
+
+            // A delta left from an older full snapshot is ignored
+            if (Files.isRegularFile(worldDeltaPath)) {
+                ByteBuffer delta = ByteBuffer.wrap(Files.readAllBytes(worldDeltaPath));
+                if (WorldCodec.deltaBaseId(delta) == WorldCodec.fullId(full)) {
+                    WorldCodec.applyDelta(snapshot, delta);
+                }
+            }
+            return snapshot;
+        } catch (IOException | RuntimeException e) {
+            logger.warning("World snapshot is unreadable, the level starts over: " + e);
+            return null;
+        }
+    }
+
+    /**
+     * Stops the writer after the waiting save is written.
+     */
+    public void dispose() {
+        writer.shutdown();
+        try {
+            if (!writer.awaitTermination(DISPOSE_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                logger.warning("Save writer did not finish in time");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Writes the pending value until no newer one is requested.
+     */
+    private <T> void writePending(AtomicReference<T> pending, SaveWriter<T> saveWriter) {
+        // The value stays pending while it is written, so the readers still see it and no other write
+        // is scheduled. A value requested meanwhile replaces it and is written by the next iteration.
+        T value = pending.get();
+        while (value != null) {
+            write(value, saveWriter);
+
+            if (pending.compareAndSet(value, null)) {
+                return;
+            }
+            value = pending.get();
+        }
+    }
+
+    /**
+     * Writes the pending world snapshot like {@link #writePending}. A snapshot requested before the last
+     * deletion of the world is dropped. A snapshot requested after a deletion that is still queued
+     * carries out the deletion first, the queued deletion then does nothing.
+     */
+    private void writePendingWorld() {
+        PendingWorld value = pendingWorld.get();
+        while (value != null) {
+            if (value.generation() > clearedGeneration) {
+                deleteWorld(value.generation());
+            }
+            if (value.generation() == clearedGeneration) {
+                write(value.snapshot(), this::writeWorld);
+            }
+
+            if (pendingWorld.compareAndSet(value, null)) {
+                return;
+            }
+            value = pendingWorld.get();
+        }
+    }
+
+    private <T> void write(T value, SaveWriter<T> saveWriter) {
+        long start = System.nanoTime();
+        try {
+            saveWriter.write(value);
+            GameMetrics.SAVE_LATENCY.record((System.nanoTime() - start) / 1000);
+        } catch (IOException e) {
+            logger.severe("Failed to write save file: " + e.getMessage());
+            GameMetrics.SAVE_FAILURES.increment();
+        }
+    }
+
+    private void writeSave(JsonNode gameData) throws IOException {
+        SaveWriteEvent event = new SaveWriteEvent();
+        event.begin();
+
+        byte[] bytes = Json.MAPPER.writeValueAsBytes(gameData);
+        AtomicFiles.write(path, bytes);
+        slots.update(slot, gameData, bytes);
+
+        commit(event, "game", bytes.length);
+    }
+
+    /**
+     * Writes the delta of the snapshot against the last full snapshot, or a new full snapshot if there is
+     * no full snapshot of the level yet, enough deltas were written, or the delta is not much smaller.
+     */
+    private void writeWorld(WorldSnapshot snapshot) throws IOException {
+        SaveWriteEvent event = new SaveWriteEvent();
+        event.begin();
+
+        if (worldBase != null && worldBase.levelNumber == snapshot.levelNumber
+                && worldBase.rooms.length == snapshot.rooms.length && deltasWritten < DELTAS_PER_FULL_SNAPSHOT) {
+            byte[] delta = WorldCodec.encodeDelta(worldBase, worldBaseId, snapshot);
+            if (delta.length < worldBaseSize / 2) {
+                AtomicFiles.write(worldDeltaPath, delta);
+                deltasWritten++;
+                commit(event, "world delta", delta.length);
+                return;
+            }
+        }
+
+        // The id only has to differ from the previous full snapshot, so a stale delta is never applied
+        long id = Math.max(System.currentTimeMillis(), worldBaseId + 1);
+        byte[] full = WorldCodec.encodeFull(snapshot, id);
+        AtomicFiles.write(worldPath, full);
+        Files.deleteIfExists(worldDeltaPath);
+
+        worldBase = snapshot;
+        worldBaseId = id;
+        worldBaseSize = full.length;
+        deltasWritten = 0;
+        commit(event, "world full", full.length);
+    }
+
+    private void commit(SaveWriteEvent event, String kind, int bytes) {
+        if (event.shouldCommit()) {
+            event.slot = slot;
+            event.kind = kind;
+            event.bytes = bytes;
+            event.commit();
+        }
+    }
+
+    /**
+     * World snapshot waiting for the writer together with the generation it was requested in.
+     */
+    private record PendingWorld(WorldSnapshot snapshot, int generation) {}
+
+    /**
+     * Writes one kind of save.
+     */
+    private interface SaveWriter<T> {
+        void write(T value) throws IOException;
+    }
+}
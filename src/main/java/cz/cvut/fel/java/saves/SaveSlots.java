@@ -0,0 +1,248 @@
+package cz.cvut.fel.java.saves;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import cz.cvut.fel.java.io.AtomicFiles;
+import cz.cvut.fel.java.io.Names;
+import cz.cvut.fel.java.json.Json;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+/**
+ * Catalog of the save slots. Every slot is a directory in the saves directory holding its game save
+ * and world snapshots. A small index file holds the metadata of all slots, so the menu lists them
+ * without reading the saves. The index is updated whenever a game save is written and rebuilt
+ * from the slot directories if it is missing or unreadable.
+ *
+ * <p>Index layout (big endian): magic, version, slot count and per slot its name, level number,
+ * balance, time of the save and CRC32 checksum of the save file. Names are stored as a short length
+ * and UTF-8 bytes.
+ */
+public class SaveSlots {
+    private static final Logger logger = Logger.getLogger(SaveSlots.class.getName());
+
+    /**
+     * Directory holding the save slots.
+     */
+    public static final String SAVES_DIRECTORY = "src/main/resources/saves";
+
+    /**
+     * Name of the game save file in a slot directory.
+     */
+    public static final String SAVE_FILE = "gameSave.json";
+
+    /**
+     * Slot used before any slot is chosen.
+     */
+    public static final String DEFAULT_SLOT = "slot1";
+
+    private static final String INDEX_FILE = "index.bin";
+    private static final String SLOT_PREFIX = "slot";
+
+    private static final int MAGIC = 0x534C4F54; // "SLOT"
+    private static final int VERSION = 1;
+
+    /**
+     * Metadata of one save slot.
+     *
+     * @param name name of the slot directory
+     * @param level number of the saved level
+     * @param balance balance of the saved player
+     * @param timestamp time of the save in milliseconds since the epoch
+     * @param checksum CRC32 checksum of the save file
+     */
+    public record SlotInfo(String name, int level, int balance, long timestamp, long checksum) {}
+
+    private final Path directory;
+
+    /**
+     * Metadata of the slots by their names, null until the index is read.
+     */
+    private Map<String, SlotInfo> slots;
+
+    /**
+     * Creates the catalog of the default saves directory.
+     */
+    public SaveSlots() {
+        this(Path.of(SAVES_DIRECTORY));
+    }
+
+    /**
+     * @param directory directory holding the save slots
+     */
+    public SaveSlots(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * @param slot name of the slot
+     * @return path of the game save of the slot
+     */
+    public Path savePath(String slot) {
+        return directory.resolve(slot).resolve(SAVE_FILE);
+    }
+
+    /**
+     * @return metadata of all slots, the most recently saved first
+     */
+    public synchronized List<SlotInfo> list() {
+        ArrayList<SlotInfo> list = new ArrayList<>(slots().values());
+        list.sort(Comparator.comparingLong(SlotInfo::timestamp).reversed());
+        return list;
+    }
+
+    /**
+     * @return name of a slot not used yet
+     */
+    public synchronized String newSlotName() {
+        int number = 1;
+        while (slots().containsKey(SLOT_PREFIX + number) || Files.exists(directory.resolve(SLOT_PREFIX + number))) {
+            number++;
+        }
+        return SLOT_PREFIX + number;
+    }
+
+    /**
+     * Records a written game save in the index. Called by the save writer.
+     *
+     * @param slot name of the slot
+     * @param gameData the written game save
+     * @param bytes the written content of the save file
+     */
+    public synchronized void update(String slot, JsonNode gameData, byte[] bytes) {
+        slots().put(slot, info(slot, gameData, bytes, System.currentTimeMillis()));
+        writeIndex();
+    }
+
+    /**
+     * Checks the content of a save file against the checksum in the index.
+     *
+     * @param slot name of the slot
+     * @param bytes the content of the save file
+     * @return true if the content matches the checksum, or the slot is not indexed
+     */
+    public synchronized boolean verify(String slot, byte[] bytes) {
+        SlotInfo info = slots().get(slot);
+        return info == null || info.checksum() == checksum(bytes);
+    }
+
+    /**
+     * @return the slots read from the index, rebuilt if the index cannot be read
+     */
+    private Map<String, SlotInfo> slots() {
+        if (slots == null) {
+            slots = readIndex();
+            if (slots == null) {
+                slots = rebuild();
+                writeIndex();
+            }
+        }
+        return slots;
+    }
+
+    private Map<String, SlotInfo> readIndex() {
+        Path index = directory.resolve(INDEX_FILE);
+        if (!Files.isRegularFile(index)) {
+            return null;
+        }
+
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(index));
+            if (buffer.remaining() < 12 || buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                return null;
+            }
+
+            int count = buffer.getInt();
+            Map<String, SlotInfo> read = new LinkedHashMap<>();
+            for (int i = 0; i < count; i++) {
+                SlotInfo info = new SlotInfo(Names.read(buffer), buffer.getInt(), buffer.getInt(),
+                        buffer.getLong(), buffer.getLong());
+                read.put(info.name(), info);
+            }
+            return read;
+        } catch (IOException | BufferUnderflowException e) {
+            logger.warning("Save index " + index + " is unreadable, rebuilding it: " + e);
+            return null;
+        }
+    }
+
+    /**
+     * Reads every save in the slot directories. Only needed when the index is missing.
+     */
+    private Map<String, SlotInfo> rebuild() {
+        Map<String, SlotInfo> rebuilt = new LinkedHashMap<>();
+        if (!Files.isDirectory(directory)) {
+            return rebuilt;
+        }
+
+        logger.info("Rebuilding save index of " + directory);
+        try (DirectoryStream<Path> slotDirectories = Files.newDirectoryStream(directory, Files::isDirectory)) {
+            for (Path slotDirectory : slotDirectories) {
+                Path save = slotDirectory.resolve(SAVE_FILE);
+                if (!Files.isRegularFile(save)) {
+                    continue;
+                }
+
+                String slot = slotDirectory.getFileName().toString();
+                try {
+                    byte[] bytes = Files.readAllBytes(save);
+                    long timestamp = Files.getLastModifiedTime(save).toMillis();
+                    rebuilt.put(slot, info(slot, Json.MAPPER.readTree(bytes), bytes, timestamp));
+                } catch (IOException e) {
+                    logger.warning("Skipping unreadable save " + save + ": " + e);
+                }
+            }
+        } catch (IOException e) {
+            logger.warning("Cannot list save slots in " + directory + ": " + e);
+        }
+        return rebuilt;
+    }
+
+    private void writeIndex() {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(slots.size());
+            for (SlotInfo info : slots.values()) {
+                Names.write(out, info.name());
+                out.writeInt(info.level());
+                out.writeInt(info.balance());
+                out.writeLong(info.timestamp());
+                out.writeLong(info.checksum());
+            }
+            out.flush();
+
+            AtomicFiles.write(directory.resolve(INDEX_FILE), bytes.toByteArray());
+        } catch (IOException e) {
+            // The index is rebuilt on the next start
+            logger.warning("Cannot write save index: " + e);
+        }
+    }
+
+    private static SlotInfo info(String slot, JsonNode gameData, byte[] bytes, long timestamp) {
+        return new SlotInfo(slot, gameData.path("currentLevel").asInt(),
+                gameData.path("player").path("balance").asInt(), timestamp, checksum(bytes));
+    }
+
+    private static long checksum(byte[] bytes) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        return crc.getValue();
+    }
+}
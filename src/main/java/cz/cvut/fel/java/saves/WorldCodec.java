@@ -0,0 +1,343 @@
+package cz.cvut.fel.java.saves;
+
+import cz.cvut.fel.java.io.Names;
+import cz.cvut.fel.java.saves.WorldSnapshot.RoomState;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+
+/**
+ * Binary encoding of {@link WorldSnapshot world snapshots}. A full snapshot holds the whole world,
+ * a delta holds only what changed against a full snapshot, so frequent autosaves write a few bytes.
+ *
+ * <p>Full layout (big endian): magic, version, snapshot id, level number, current room id, player
+ * (x, y, health, stamina, balance, armor, weapon), room count n, room ids (n ints), room flags (n bytes,
+ * with an extra bit for rooms that have enemies), boss health (n ints, -1 for none), enemy offsets
+ * (n + 1 ints), enemy type names, then the enemies as columns: type name indices (ints), x (floats),
+ * y (floats) and health (ints).
+ *
+ * <p>Delta layout: magic, version, id of the full snapshot it applies to, level number, current room id,
+ * player, the number of changed rooms and for each its index, flags, boss health, enemy count
+ * (-1 for none) and the enemies (type name, x, y, health).
+ *
+ * <p>Names are stored as a short length and UTF-8 bytes.
+ */
+public final class WorldCodec {
+    private static final int FULL_MAGIC = 0x574F524C; // "WORL"
+    private static final int DELTA_MAGIC = 0x44454C54; // "DELT"
+    private static final int VERSION = 1;
+
+    /**
+     * Bit of the encoded room flags marking a room that has enemies, even if none survive.
+     */
+    private static final int HAS_ENEMIES = 0x80;
+
+    private WorldCodec() {}
+
+    /**
+     * Encodes the whole snapshot.
+     *
+     * @param snapshot the snapshot
+     * @param id id of the snapshot, deltas refer to it
+     * @return the encoded snapshot
+     */
+    public static byte[] encodeFull(WorldSnapshot snapshot, long id) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+
+            out.writeInt(FULL_MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(id);
+            writeHead(out, snapshot);
+
+            RoomState[] rooms = snapshot.rooms;
+            out.writeInt(rooms.length);
+            for (RoomState room : rooms) {
+                out.writeInt(room.id);
+            }
+            for (RoomState room : rooms) {
+                out.writeByte(room.flags | (room.enemyTypes != null ? HAS_ENEMIES : 0));
+            }
+            for (RoomState room : rooms) {
+                out.writeInt(room.bossHealth);
+            }
+
+            // Enemies of all rooms are stored as flat columns, the offsets delimit the rooms
+            ArrayList<String> typeNames = new ArrayList<>();
+            int offset = 0;
+            for (RoomState room : rooms) {
+                out.writeInt(offset);
+                if (room.enemyTypes != null) {
+                    offset += room.enemyTypes.length;
+                    for (String type : room.enemyTypes) {
+                        if (!typeNames.contains(type)) {
+                            typeNames.add(type);
+                        }
+                    }
+                }
+            }
+            out.writeInt(offset);
+
+            out.writeInt(typeNames.size());
+            for (String type : typeNames) {
+                Names.write(out, type);
+            }
+            for (RoomState room : rooms) {
+                if (room.enemyTypes != null) {
+                    for (String type : room.enemyTypes) {
+                        out.writeInt(typeNames.indexOf(type));
+                    }
+                }
+            }
+            for (RoomState room : rooms) {
+                if (room.enemyX != null) {
+                    for (float x : room.enemyX) {
+                        out.writeFloat(x);
+                    }
+                }
+            }
+            for (RoomState room : rooms) {
+                if (room.enemyY != null) {
+                    for (float y : room.enemyY) {
+                        out.writeFloat(y);
+                    }
+                }
+            }
+            for (RoomState room : rooms) {
+                if (room.enemyHealth != null) {
+                    for (int health : room.enemyHealth) {
+                        out.writeInt(health);
+                    }
+                }
+            }
+
+            out.flush();
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            // Writing to memory does not fail
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Encodes the changes of the snapshot against a full snapshot. The player is always included,
+     * the rooms only if they changed.
+     *
+     * @param base the full snapshot
+     * @param baseId id of the full snapshot
+     * @param snapshot the current snapshot of the same level
+     * @return the encoded delta
+     */
+    public static byte[] encodeDelta(WorldSnapshot base, long baseId, WorldSnapshot snapshot) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+
+            out.writeInt(DELTA_MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(baseId);
+            writeHead(out, snapshot);
+
+            int changed = 0;
+            for (int i = 0; i < snapshot.rooms.length; i++) {
+                if (!snapshot.rooms[i].sameAs(base.rooms[i])) {
+                    changed++;
+                }
+            }
+
+            out.writeInt(changed);
+            for (int i = 0; i < snapshot.rooms.length; i++) {
+                RoomState room = snapshot.rooms[i];
+                if (room.sameAs(base.rooms[i])) {
+                    continue;
+                }
+
+                out.writeInt(i);
+                out.writeByte(room.flags);
+                out.writeInt(room.bossHealth);
+                if (room.enemyTypes == null) {
+                    out.writeInt(-1);
+                    continue;
+                }
+                out.writeInt(room.enemyTypes.length);
+                for (int j = 0; j < room.enemyTypes.length; j++) {
+                    Names.write(out, room.enemyTypes[j]);
+                    out.writeFloat(room.enemyX[j]);
+                    out.writeFloat(room.enemyY[j]);
+                    out.writeInt(room.enemyHealth[j]);
+                }
+            }
+
+            out.flush();
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            // Writing to memory does not fail
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @param full the encoded full snapshot
+     * @return the id of the full snapshot
+     * @throws IllegalArgumentException if the buffer does not hold a full snapshot of the current version
+     */
+    public static long fullId(ByteBuffer full) {
+        checkHeader(full, FULL_MAGIC);
+        return full.getLong(8);
+    }
+
+    /**
+     * @param delta the encoded delta
+     * @return the id of the full snapshot the delta applies to
+     * @throws IllegalArgumentException if the buffer does not hold a delta of the current version
+     */
+    public static long deltaBaseId(ByteBuffer delta) {
+        checkHeader(delta, DELTA_MAGIC);
+        return delta.getLong(8);
+    }
+
+    /**
+     * Decodes a full snapshot.
+     *
+     * @param full the encoded full snapshot
+     * @return the snapshot
+     * @throws IllegalArgumentException if the buffer does not hold a full snapshot of the current version
+     */
+    public static WorldSnapshot decodeFull(ByteBuffer full) {
+        checkHeader(full, FULL_MAGIC);
+        full.position(16);
+
+        WorldSnapshot snapshot = new WorldSnapshot();
+        readHead(full, snapshot);
+
+        int roomCount = full.getInt();
+        RoomState[] rooms = new RoomState[roomCount];
+        for (int i = 0; i < roomCount; i++) {
+            rooms[i] = new RoomState();
+            rooms[i].id = full.getInt();
+        }
+        boolean[] hasEnemies = new boolean[roomCount];
+        for (int i = 0; i < roomCount; i++) {
+            byte flags = full.get();
+            rooms[i].flags = (byte) (flags & ~HAS_ENEMIES);
+            hasEnemies[i] = (flags & HAS_ENEMIES) != 0;
+        }
+        for (RoomState room : rooms) {
+            room.bossHealth = full.getInt();
+        }
+
+        int[] offsets = new int[roomCount + 1];
+        for (int i = 0; i <= roomCount; i++) {
+            offsets[i] = full.getInt();
+        }
+        String[] typeNames = new String[full.getInt()];
+        for (int i = 0; i < typeNames.length; i++) {
+            typeNames[i] = Names.read(full);
+        }
+
+        int enemyCount = offsets[roomCount];
+        int types = full.position();
+        int xs = types + 4 * enemyCount;
+        int ys = xs + 4 * enemyCount;
+        int healths = ys + 4 * enemyCount;
+        for (int i = 0; i < roomCount; i++) {
+            if (!hasEnemies[i]) {
+                continue;
+            }
+
+            RoomState room = rooms[i];
+            int count = offsets[i + 1] - offsets[i];
+            room.enemyTypes = new String[count];
+            room.enemyX = new float[count];
+            room.enemyY = new float[count];
+            room.enemyHealth = new int[count];
+            for (int j = 0; j < count; j++) {
+                int enemy = offsets[i] + j;
+                room.enemyTypes[j] = typeNames[full.getInt(types + 4 * enemy)];
+                room.enemyX[j] = full.getFloat(xs + 4 * enemy);
+                room.enemyY[j] = full.getFloat(ys + 4 * enemy);
+                room.enemyHealth[j] = full.getInt(healths + 4 * enemy);
+            }
+        }
+
+        snapshot.rooms = rooms;
+        return snapshot;
+    }
+
+    /**
+     * Applies a delta to the decoded full snapshot it was encoded against.
+     *
+     * @param base the decoded full snapshot, it is changed
+     * @param delta the encoded delta
+     * @return the base snapshot with the changes applied
+     * @throws IllegalArgumentException if the buffer does not hold a delta of the current version
+     */
+    public static WorldSnapshot applyDelta(WorldSnapshot base, ByteBuffer delta) {
+        checkHeader(delta, DELTA_MAGIC);
+        delta.position(16);
+
+        readHead(delta, base);
+
+        int changed = delta.getInt();
+        for (int i = 0; i < changed; i++) {
+            RoomState room = base.rooms[delta.getInt()];
+            room.flags = delta.get();
+            room.bossHealth = delta.getInt();
+
+            int count = delta.getInt();
+            if (count < 0) {
+                room.enemyTypes = null;
+                room.enemyX = null;
+                room.enemyY = null;
+                room.enemyHealth = null;
+                continue;
+            }
+            room.enemyTypes = new String[count];
+            room.enemyX = new float[count];
+            room.enemyY = new float[count];
+            room.enemyHealth = new int[count];
+            for (int j = 0; j < count; j++) {
+                room.enemyTypes[j] = Names.read(delta);
+                room.enemyX[j] = delta.getFloat();
+                room.enemyY[j] = delta.getFloat();
+                room.enemyHealth[j] = delta.getInt();
+            }
+        }
+        return base;
+    }
+
+    private static void writeHead(DataOutputStream out, WorldSnapshot snapshot) throws IOException {
+        out.writeInt(snapshot.levelNumber);
+        out.writeInt(snapshot.currentRoomId);
+        out.writeFloat(snapshot.playerX);
+        out.writeFloat(snapshot.playerY);
+        out.writeInt(snapshot.playerHealth);
+        out.writeFloat(snapshot.playerStamina);
+        out.writeInt(snapshot.playerBalance);
+        out.writeInt(snapshot.playerArmor);
+        Names.write(out, snapshot.playerWeapon);
+    }
+
+    private static void readHead(ByteBuffer buffer, WorldSnapshot snapshot) {
+        snapshot.levelNumber = buffer.getInt();
+        snapshot.currentRoomId = buffer.getInt();
+        snapshot.playerX = buffer.getFloat();
+        snapshot.playerY = buffer.getFloat();
+        snapshot.playerHealth = buffer.getInt();
+        snapshot.playerStamina = buffer.getFloat();
+        snapshot.playerBalance = buffer.getInt();
+        snapshot.playerArmor = buffer.getInt();
+        snapshot.playerWeapon = Names.read(buffer);
+    }
+
+    private static void checkHeader(ByteBuffer buffer, int magic) {
+        if (buffer.limit() < 16 || buffer.getInt(0) != magic || buffer.getInt(4) != VERSION) {
+            throw new IllegalArgumentException("Not a world snapshot of version " + VERSION);
+        }
+    }
+}
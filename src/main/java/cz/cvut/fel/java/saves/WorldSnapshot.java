@@ -0,0 +1,216 @@
+package cz.cvut.fel.java.saves;
+
+import cz.cvut.fel.java.Rooms.Room;
+import cz.cvut.fel.java.characters.Enemies;
+import cz.cvut.fel.java.characters.Enemy;
+import cz.cvut.fel.java.characters.EnemyTypes;
+import cz.cvut.fel.java.characters.Player;
+import cz.cvut.fel.java.levels.Level;
+import cz.cvut.fel.java.objects.weapons.Weapon;
+import cz.cvut.fel.java.objects.weapons.WeaponType;
+import cz.cvut.fel.java.objects.weapons.WeaponTypes;
+
+import java.util.Arrays;
+import java.util.logging.Logger;
+
+/**
+ * State of the whole world of a level in progress: the player, the flags of every room,
+ * the surviving enemies and the health of the bosses. It is captured on the game thread
+ * and encoded by the {@link WorldCodec} on the save writer, so it holds copies only.
+ */
+public class WorldSnapshot {
+    private static final Logger logger = Logger.getLogger(WorldSnapshot.class.getName());
+
+    // Bits of the room flags
+    static final int VISITED = 1;
+    static final int ACTIVE = 2;
+    static final int PREPARED = 4;
+
+    public int levelNumber;
+    public int currentRoomId;
+
+    // State of the player
+    public float playerX;
+    public float playerY;
+    public int playerHealth;
+    public float playerStamina;
+    public int playerBalance;
+    public int playerArmor;
+    public String playerWeapon;
+
+    /**
+     * State of the rooms in the order of the level's rooms.
+     */
+    public RoomState[] rooms;
+
+    /**
+     * State of one room.
+     */
+    public static class RoomState {
+        /**
+         * Id of the room, used to check the snapshot fits the level.
+         */
+        public int id;
+
+        /**
+         * Visited, active and prepared flags of the room.
+         */
+        public byte flags;
+
+        /**
+         * Health of the boss, -1 if the room has no boss.
+         */
+        public int bossHealth = -1;
+
+        // Surviving enemies of the room, null if the room has no enemies
+        public String[] enemyTypes;
+        public float[] enemyX;
+        public float[] enemyY;
+        public int[] enemyHealth;
+
+        /**
+         * @return true if the other room state is the same as this one
+         */
+        boolean sameAs(RoomState other) {
+            return id == other.id
+                    && flags == other.flags
+                    && bossHealth == other.bossHealth
+                    && sameEnemiesAs(other);
+        }
+
+        /**
+         * @return true if the enemies of the other room state are the same as in this one
+         */
+        boolean sameEnemiesAs(RoomState other) {
+            return Arrays.equals(enemyTypes, other.enemyTypes)
+                    && Arrays.equals(enemyX, other.enemyX)
+                    && Arrays.equals(enemyY, other.enemyY)
+                    && Arrays.equals(enemyHealth, other.enemyHealth);
+        }
+    }
+
+    /**
+     * Captures the state of the level being played. Must be called on the game thread.
+     *
+     * @param level the level being played
+     * @param player the player
+     * @param currentRoom the room the player is in
+     * @return the snapshot
+     */
+    public static WorldSnapshot capture(Level level, Player player, Room currentRoom) {
+        WorldSnapshot snapshot = new WorldSnapshot();
+        snapshot.levelNumber = level.getLevelNumber();
+        snapshot.currentRoomId = currentRoom.id;
+
+        snapshot.playerX = player.getX();
+        snapshot.playerY = player.getY();
+        snapshot.playerHealth = player.getHealth();
+        snapshot.playerStamina = player.getStamina();
+        snapshot.playerBalance = player.getBalance();
+        snapshot.playerArmor = player.getArmor();
+        snapshot.playerWeapon = player.getEquippedWeapon().getType().name();
+
+        snapshot.rooms = new RoomState[level.rooms.size()];
+        for (int i = 0; i < snapshot.rooms.length; i++) {
+            snapshot.rooms[i] = captureRoom(level.rooms.get(i));
+        }
+        return snapshot;
+    }
+
+    private static RoomState captureRoom(Room room) {
+        RoomState state = new RoomState();
+        state.id = room.id;
+        state.flags = (byte) ((room.visited ? VISITED : 0) | (room.active ? ACTIVE : 0) | (room.prepared ? PREPARED : 0));
+
+        if (room.boss != null) {
+            state.bossHealth = room.boss.getHealth();
+        }
+
+        Enemies enemies = room.enemies;
+        if (enemies != null) {
+            int count = enemies.size();
+            state.enemyTypes = new String[count];
+            state.enemyX = new float[count];
+            state.enemyY = new float[count];
+            state.enemyHealth = new int[count];
+            for (int i = 0; i < count; i++) {
+                state.enemyTypes[i] = enemies.getType(i);
+                state.enemyX[i] = enemies.getX(i);
+                state.enemyY[i] = enemies.getY(i);
+                state.enemyHealth[i] = enemies.getHealth(i);
+            }
+        }
+        return state;
+    }
+
+    /**
+     * Restores the captured state into a freshly loaded level. Must be called on the game thread
+     * after the characters of the level were created. Nothing is changed if the snapshot does not fit
+     * the level, e.g. because the level file was edited since, or names an enemy type or weapon that is
+     * not in the archetype catalog anymore.
+     *
+     * @param level the loaded level
+     * @param player the player
+     * @return the room the player is in, or null if the snapshot was not restored
+     */
+    public Room restore(Level level, Player player) {
+        Room currentRoom = level.rooms.getRoomById(currentRoomId);
+        if (levelNumber != level.getLevelNumber() || rooms.length != level.rooms.size() || currentRoom == null) {
+            logger.warning("World snapshot does not fit level " + level.getLevelNumber() + ", ignoring it");
+            return null;
+        }
+        for (int i = 0; i < rooms.length; i++) {
+            Room room = level.rooms.get(i);
+            if (rooms[i].id != room.id || (rooms[i].enemyTypes != null) != (room.enemies != null)) {
+                logger.warning("World snapshot does not fit level " + level.getLevelNumber() + ", ignoring it");
+                return null;
+            }
+        }
+
+        // The names are resolved before anything is changed, the catalog may have been edited since
+        WeaponType weapon;
+        Enemy[][] enemyTypes = new Enemy[rooms.length][];
+        try {
+            weapon = WeaponTypes.get(playerWeapon);
+            for (int i = 0; i < rooms.length; i++) {
+                String[] names = rooms[i].enemyTypes;
+                if (names != null) {
+                    enemyTypes[i] = new Enemy[names.length];
+                    for (int j = 0; j < names.length; j++) {
+                        enemyTypes[i][j] = EnemyTypes.get(names[j]);
+                    }
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            logger.warning("World snapshot does not fit the archetype catalog, ignoring it: " + e.getMessage());
+            return null;
+        }
+
+        for (int i = 0; i < rooms.length; i++) {
+            restoreRoom(rooms[i], enemyTypes[i], level.rooms.get(i));
+        }
+
+        player.setPosition(playerX, playerY);
+        player.restoreState(playerHealth, playerStamina, playerBalance, playerArmor, new Weapon(weapon));
+        return currentRoom;
+    }
+
+    private static void restoreRoom(RoomState state, Enemy[] enemyTypes, Room room) {
+        room.visited = (state.flags & VISITED) != 0;
+        room.active = (state.flags & ACTIVE) != 0;
+        room.prepared = (state.flags & PREPARED) != 0;
+
+        if (room.boss != null && state.bossHealth >= 0) {
+            room.boss.restoreHealth(state.bossHealth);
+        }
+
+        Enemies enemies = room.enemies;
+        if (enemies != null) {
+            enemies.clear();
+            for (int i = 0; i < state.enemyTypes.length; i++) {
+                int index = enemies.spawn(enemyTypes[i], state.enemyX[i], state.enemyY[i]);
+                enemies.restoreHealth(index, state.enemyHealth[i]);
+            }
+        }
+    }
+}
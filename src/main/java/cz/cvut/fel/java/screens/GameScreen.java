@@ -6,23 +6,34 @@ import com.badlogic.gdx.Screen;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
-import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.scenes.scene2d.Stage;
 import com.badlogic.gdx.utils.ScreenUtils;
 import com.badlogic.gdx.utils.viewport.ScreenViewport;
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import cz.cvut.fel.java.DungeonGame;
 import cz.cvut.fel.java.Rooms.Room;
+import cz.cvut.fel.java.Rooms.RoomType;
 import cz.cvut.fel.java.characters.*;
-import cz.cvut.fel.java.dto.RoomMovementDto;
+import cz.cvut.fel.java.json.Json;
 import cz.cvut.fel.java.levels.Level;
+import cz.cvut.fel.java.levels.LoadedLevel;
+import cz.cvut.fel.java.logging.GameEvent;
+import cz.cvut.fel.java.logging.GameLog;
+import cz.cvut.fel.java.metrics.GameMetrics;
+import cz.cvut.fel.java.profiling.FrameProfiler;
+import cz.cvut.fel.java.profiling.ProfileStage;
+import cz.cvut.fel.java.profiling.ProfilerOverlay;
+import cz.cvut.fel.java.profiling.SimulationTickEvent;
+import cz.cvut.fel.java.rendering.RenderLayer;
+import cz.cvut.fel.java.rendering.RenderQueue;
+import cz.cvut.fel.java.saves.WorldSnapshot;
+import cz.cvut.fel.java.simulation.Simulation;
+import cz.cvut.fel.java.textures.CharacterAtlas;
 import cz.cvut.fel.java.uicomponents.texts.Text;
 
-import java.io.File;
-import java.io.IOException;
 import java.util.ArrayList;
+import java.util.concurrent.Future;
 import java.util.logging.Logger;
 
 /**
@@ -45,6 +56,16 @@ public class GameScreen implements Screen {
      */
     private Texture backgroundTexture;
 
+    /**
+     * Path of the background texture, used as a key to the asset manager
+     */
+    private String backgroundTextureName;
+
+    /**
+     * Flag indicating whether the resources of the screen were already released
+     */
+    private boolean disposed = false;
+
     /**
      * Flag indicating whether the game is paused or not
      */
@@ -78,72 +99,106 @@ public class GameScreen implements Screen {
 
     private ShapeRenderer shapeRenderer;
 
-    private Room currentRoom;
+    /**
+     * Overlay with the frame stage timings, toggled with F3
+     */
+    private ProfilerOverlay profilerOverlay;
+
+    /**
+     * Duration of one simulation step in seconds
+     */
+    private static final float SIMULATION_STEP = 1f / 60f;
+
+    /**
+     * Longest frame time the simulation catches up with, longer frames slow the game down instead
+     */
+    private static final float MAX_FRAME_TIME = 0.25f;
+
+    /**
+     * Frame time not yet consumed by the simulation steps
+     */
+    private float accumulator = 0f;
+
+    /**
+     * Queue collecting the draw commands of a frame
+     */
+    private final RenderQueue renderQueue = new RenderQueue();
+
+    /**
+     * Number of the last level, its portal does not lead anywhere
+     */
+    private static final int LAST_LEVEL = 3;
 
-    private Room portalRoom;
-    private Room traderRoom;
+    /**
+     * Next level parsed in the background once the portal room was visited, null before that
+     */
+    private Future<Level> nextLevel;
 
     /**
-     * Constructor for the GameScreen class
+     * Flag indicating that the next level could not be preloaded, it is loaded behind the loading screen instead
+     */
+    private boolean nextLevelFailed = false;
+
+    /**
+     * Background texture of the next level queued in the asset manager, null while none is queued
+     */
+    private String nextBackgroundPath;
+
+    /**
+     * Simulated time in seconds between two autosaves of the world
+     */
+    private static final float AUTOSAVE_INTERVAL = 5f;
+
+    /**
+     * Simulated time since the last autosave
+     */
+    private float autosaveTimer = 0f;
+
+    /**
+     * Simulation of the level, it does not need the GL context
+     */
+    private Simulation simulation;
+
+    /**
+     * Constructor for the GameScreen class. Must be called on the render thread.
+     * The character atlas is held by the screen until it is disposed, so it should be created while
+     * the previous screen still holds the atlas, the characters then render without packing it again.
      *
      * @param game the main game instance
-     * @param newGame true to start a new game, false to load an existing game
+     * @param loadedLevel the level prepared by the loading screen, its textures are loaded by the asset manager
      */
-    public GameScreen(DungeonGame game, boolean newGame) {
+    public GameScreen(DungeonGame game, LoadedLevel loadedLevel) {
         this.game = game;
 
-        // Check if the game is new or needs to be loaded from a save
-        JsonNode gameData = null;
-
-        if (newGame) {
-            // Create new save file
-            gameData = createNewLevelSave(1);
-            logger.info("New game -> create new save file");
-        } else {
-            // Load existing save file
-            gameData = loadLevelSave();
-            logger.info("Load existing save file");
-        }
+        // The characters acquire the atlas on their first render, the screen keeps it packed until then
+        CharacterAtlas.acquire();
 
-        // Create level based on save data
-        this.level = Level.createLevel(gameData);
+        JsonNode gameData = loadedLevel.gameData;
+        this.level = loadedLevel.level;
 
         // Create player based on save data
         this.player = Player.createPlayer(gameData);
 
-        // Change the player position to the spawn room
-        Room spawnRoom = level.rooms.getSpawnRoom();
-        player.setPosition(
-                spawnRoom.spawnPoint[0],
-                spawnRoom.spawnPoint[1]
-        );
+        // The simulation places the player in the spawn room
+        this.simulation = new Simulation(level, player);
 
-        this.currentRoom = spawnRoom;
-        currentRoom.visited = true;
-        currentRoom.active = false;
-        currentRoom.prepared = false;
-
-        this.portalRoom = level.rooms.getPortalRoom();
-        if (this.portalRoom != null) {
-            level.hasPortalRoom = true;
-        }
-
-        this.traderRoom = level.rooms.getTraderRoom();
-        if (this.traderRoom != null) {
-            level.hasTraderRoom = true;
+        // Continue the level where it was autosaved, a snapshot that does not fit is deleted
+        if (loadedLevel.world != null && !simulation.restore(loadedLevel.world)) {
+            game.getSaveService().clearWorld();
         }
 
         // TEMPORARY
         // Create enemies based on save data
         this.activeEnemies = new Enemies();
-        this.activeEnemies.addEnemy(new Enemy("orc"));
-        this.activeEnemies.addEnemy(new Enemy("goblin"));
+        this.activeEnemies.spawn("orc", 0, 0);
+        this.activeEnemies.spawn("goblin", 0, 0);
 
         this.trader = new Trader();
         this.dragon = new Dragon();
 
-        // Load the background texture for the level
-        this.backgroundTexture = new Texture(Gdx.files.internal("textures/" + level.getMap()));
+        // The background texture of the level was loaded by the loading screen
+        this.backgroundTextureName = loadedLevel.getBackgroundPath();
+        this.backgroundTexture = game.getAssets().get(backgroundTextureName, Texture.class);
 
         // Define the game paused texts
         this.gamePausedTexts = new ArrayList<>();
@@ -152,7 +207,9 @@ public class GameScreen implements Screen {
 
 
     /**
-     * Renders the game screen
+     * Renders the game screen. The simulation runs in fixed steps, so one frame runs
+     * as many steps as fit into the elapsed time, possibly none, and the scene is
+     * rendered interpolated between the last two steps.
      *
      * @param delta time since the last frame
      */
@@ -163,44 +220,78 @@ public class GameScreen implements Screen {
             handleGamePause();
             return;
         }
-        // handle room active state
-        if (!currentRoom.active && currentRoom.prepared) {
-            setRoomActive(currentRoom, player);
-            System.out.println("Room " + currentRoom.id + " is now active: " + currentRoom.active);
-        }
-
-        if (currentRoom.type.equals("fight")) {
-            currentRoom.checkFightRoomStatus();
-        }
 
+        long frameStart = FrameProfiler.start();
 
         // Handle user input
+        long start = FrameProfiler.start();
         handleInput();
 
         handlePortal();
+        FrameProfiler.stop(ProfileStage.INPUT, start);
 
-        // update players stamina
-        player.updateStamina();
+        // Stop when the input switched to another screen, this screen is already disposed
+        if (disposed) {
+            return;
+        }
 
+        preloadNextLevel();
 
-        if (currentRoom.type.equals("fight") && currentRoom.active) {
-            System.out.println("suifhg");
-            // Update enemies movement
-            currentRoom.enemies.moveEnemies(player.getPosition());
+        // Long frames are clamped, so a hitch does not make the simulation catch up for too long
+        accumulator += Math.min(delta, MAX_FRAME_TIME);
 
-            // Update enemies attack
-            currentRoom.enemies.enemiesAttack(player);
-        } else if (currentRoom.type.equals("boss")) {
-            currentRoom.boss.attack(player);
-        }
+        while (accumulator >= SIMULATION_STEP) {
+            SimulationTickEvent tick = new SimulationTickEvent();
+            tick.begin();
+            start = FrameProfiler.start();
+            simulation.step(SIMULATION_STEP);
+            FrameProfiler.stop(ProfileStage.SIMULATION, start);
+            commitTick(tick);
+            autosave(SIMULATION_STEP);
+            accumulator -= SIMULATION_STEP;
 
-        // Check the game status
-        if (checkStatus()) {
-            return;
+            // Check the game status
+            if (checkStatus()) {
+                return;
+            }
         }
 
+        GameMetrics.LIVE_ENEMIES.set(simulation.countLiveEnemies());
+
         // Render the game screen
-        renderScreen();
+        start = FrameProfiler.start();
+        renderScreen(accumulator / SIMULATION_STEP);
+        FrameProfiler.stop(ProfileStage.RENDER, start);
+
+        profilerOverlay.render(game.getBatch());
+        FrameProfiler.stop(ProfileStage.FRAME, frameStart);
+        FrameProfiler.endFrame();
+    }
+
+    private void commitTick(SimulationTickEvent tick) {
+        if (tick.shouldCommit()) {
+            Room currentRoom = simulation.getCurrentRoom();
+            tick.levelNumber = level.getLevelNumber();
+            tick.roomId = currentRoom.id;
+            tick.roomType = currentRoom.type.name();
+            tick.enemyCount = (currentRoom.enemies != null) ? currentRoom.enemies.size() : 0;
+            tick.commit();
+        }
+    }
+
+    /**
+     * Hands a snapshot of the world to the save service every few seconds. Only the capture runs here,
+     * the snapshot is encoded and written by the save writer.
+     *
+     * @param step duration of the step in seconds
+     */
+    private void autosave(float step) {
+        autosaveTimer += step;
+        if (autosaveTimer < AUTOSAVE_INTERVAL || !player.isAlive()) {
+            return;
+        }
+        autosaveTimer = 0f;
+        game.getSaveService().saveWorld(WorldSnapshot.capture(level, player, simulation.getCurrentRoom()));
     }
 
     /**
@@ -212,6 +303,8 @@ public class GameScreen implements Screen {
         // Check if the player is alive
         if (!player.isAlive()) {
             logger.info("Player is dead -> changing to game over screen");
+            // The level starts over when the game is continued
+            game.getSaveService().clearWorld();
             game.setScreen(new GameStateScreen(game, true));
             return true;
         }
@@ -243,87 +336,71 @@ public class GameScreen implements Screen {
 
     /**
      * Renders the game scene including player, enemies, and background.
+     * Everything except texts is collected in the render queue first and drawn in one flush.
+     *
+     * @param alpha progress of the current simulation step, between 0 and 1
      */
-    public void renderScreen() {
-        game.getBatch().begin();
-
+    public void renderScreen(float alpha) {
         // Clear the screen with solid black color for new frame
         ScreenUtils.clear(Color.BLACK);
 
-        // Draw the backgroundTexture
-        game.getBatch().draw(backgroundTexture, 0, 0, Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
+        // Queue the backgroundTexture
+        renderQueue.texture(RenderLayer.WORLD, backgroundTexture, 0, 0, Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
 
-        // Render the rooms
-        game.getBatch().end();
+        // Queue the rooms
         renderRooms();
-        game.getBatch().begin();
-
-        // Draw the player
-        player.getSprite().draw(game.getBatch());
-
-        game.getBatch().end();
-        shapeRenderer.setProjectionMatrix(game.getBatch().getProjectionMatrix());
-        player.renderBar(shapeRenderer);
-        game.getBatch().begin();
 
-
-        if (currentRoom.type.equals("fight")) {
-            // Draw the enemies
-            currentRoom.enemies.renderEnemies(game.getBatch(), shapeRenderer);
-        } else if (currentRoom.type.equals("boss") && currentRoom.boss.isAlive()) {
-            // Draw the dragon
-            currentRoom.boss.getSprite().draw(game.getBatch());
-
-            game.getBatch().end();
-
-            currentRoom.boss.renderAttackSquare(shapeRenderer);
-            currentRoom.boss.renderBar(shapeRenderer);
-
-            game.getBatch().begin();
+        // Queue the player
+        player.render(renderQueue, alpha);
+
+        Room currentRoom = simulation.getCurrentRoom();
+        switch (currentRoom.type) {
+            // Queue the enemies
+            case FIGHT -> currentRoom.enemies.renderEnemies(renderQueue, alpha);
+            case BOSS -> {
+                if (currentRoom.boss.isAlive()) {
+                    // Queue the dragon
+                    currentRoom.boss.render(renderQueue, alpha);
+                    currentRoom.boss.renderAttackSquare(renderQueue);
+                }
+            }
+            default -> {
+                // Other rooms have no characters to queue
+            }
         }
 
+        Room traderRoom = simulation.traderRoom;
         if (level.hasTraderRoom) {
             if (traderRoom.visited) {
-                // Draw the trader
-                traderRoom.trader.getTraderSprite().draw(game.getBatch());
-
-                renderTraderDialogue();
+                // Queue the trader
+                traderRoom.trader.render(renderQueue);
             }
         }
+        Room portalRoom = simulation.portalRoom;
         if (level.hasPortalRoom) {
             if (portalRoom.visited) {
-                portalRoom.portal.renderPortal(shapeRenderer);
+                portalRoom.portal.renderPortal(renderQueue);
             }
         }
 
+        // Draw everything queued
+        renderQueue.flush(game.getBatch(), shapeRenderer);
 
-        game.getBatch().end();
-
-    }
-
-    private void renderRooms() {
-        for (Room room : level.rooms) {
-            // Draw the room bounds
-            shapeRenderer.begin(ShapeRenderer.ShapeType.Line);
-            shapeRenderer.setColor(Color.RED);
-            shapeRenderer.rect(room.bounds.x, room.bounds.y, room.bounds.width, room.bounds.height);
-            shapeRenderer.end();
-            room.renderCurtain(shapeRenderer);
+        // Texts are drawn over the scene
+        if (level.hasTraderRoom && traderRoom.visited) {
+            game.getBatch().begin();
+            traderRoom.trader.renderDialogue(game.getBatch());
+            game.getBatch().end();
         }
     }
 
-    private void renderTraderDialogue() {
-        if (traderRoom.trader.tradeMenuOpened) {
-            traderRoom.trader.initialDialogueText.renderText(game.getBatch());
-        }
-
-        if (traderRoom.trader.tradeResultText != null) {
-            traderRoom.trader.tradeResultText.renderText(game.getBatch());
-            traderRoom.trader.resultDisplayTime -= Gdx.graphics.getDeltaTime();
-            if (traderRoom.trader.resultDisplayTime <= 0) {
-                traderRoom.trader.tradeResultText = null;
-            }
-
+    private void renderRooms() {
+        for (int i = 0; i < level.rooms.size(); i++) {
+            Room room = level.rooms.get(i);
+            // Queue the room bounds
+            renderQueue.rect(RenderLayer.WORLD, ShapeRenderer.ShapeType.Line, Color.RED,
+                    room.bounds.x, room.bounds.y, room.bounds.width, room.bounds.height);
+            room.renderCurtain(renderQueue);
         }
     }
 
@@ -344,6 +421,7 @@ public class GameScreen implements Screen {
             }
         }*/
 
+        Room currentRoom = simulation.getCurrentRoom();
         if (Gdx.input.justTouched()) {
             currentRoom.active = false;
             currentRoom.prepared = false;
@@ -362,90 +440,108 @@ public class GameScreen implements Screen {
             game.setScreen(new GameStateScreen(game, false));
         }
 
+        // Toggle the profiler overlay
+        if (Gdx.input.isKeyJustPressed(Input.Keys.F3)) {
+            profilerOverlay.toggle();
+        }
+
         // Handle pause / unpause input
         handleInputPause();
 
-        // Handle player movement input
-        if (Gdx.input.isKeyPressed(Input.Keys.W)) {
-            checkRoomSwicth(player.moveUp(currentRoom));
-        }
-        if (Gdx.input.isKeyPressed(Input.Keys.S)) {
-            checkRoomSwicth(player.moveDown(currentRoom));
-        }
-        if (Gdx.input.isKeyPressed(Input.Keys.A)) {
-            checkRoomSwicth(player.moveLeft(currentRoom));
-        }
-        if (Gdx.input.isKeyPressed(Input.Keys.D)) {
-            checkRoomSwicth(player.moveRight(currentRoom));
-        }
-
-        // Handle player attack input
+        // The held movement keys and the attack are resolved in the next simulation step
+        simulation.moveUp = Gdx.input.isKeyPressed(Input.Keys.W);
+        simulation.moveDown = Gdx.input.isKeyPressed(Input.Keys.S);
+        simulation.moveLeft = Gdx.input.isKeyPressed(Input.Keys.A);
+        simulation.moveRight = Gdx.input.isKeyPressed(Input.Keys.D);
         if (Gdx.input.isKeyJustPressed(Input.Keys.SPACE)) {
-            if (currentRoom.enemies != null && (!currentRoom.enemies.currentEnemies.isEmpty())) {
-                player.handleAttack(currentRoom.enemies.currentEnemies);
-                logger.info("Player attacking" + player);
-            }
+            simulation.requestAttack();
         }
 
         if (level.hasTraderRoom) {
             // Handle trader input
-            if (currentRoom.type.equals("trader")) {
+            if (currentRoom.type == RoomType.TRADER) {
                 handleTraderInput();
             } else {
-                traderRoom.trader.tradeMenuOpened = false; // Close the trader menu if not in trader room
+                simulation.traderRoom.trader.tradeMenuOpened = false; // Close the trader menu if not in trader room
             }
         }
 
     }
 
-    private void checkRoomSwicth(RoomMovementDto playerMoveDto) {
-        // Check if the player can move to the next room
-        if (playerMoveDto.switchRoom) {
-            currentRoom = playerMoveDto.nextRoom;
-
-            if (!currentRoom.visited) {
-                currentRoom.visited = true;
+    public void handlePortal() {
+        // Check if the player is in the portal room
+        if (simulation.getCurrentRoom().type == RoomType.PORTAL) {
+            if (Gdx.input.isKeyJustPressed(Input.Keys.E)) {
+                if (this.level.getLevelNumber() != LAST_LEVEL) {
+                    logger.info("Touched -> changing to the next level");
+                    JsonNode gameData = createLevelSave(this.level.getLevelNumber() + 1);
+
+                    if (isNextLevelReady()) {
+                        // The next level is already prepared, only the save is written in the background
+                        game.getSaveService().save(gameData);
+                        LoadedLevel loadedLevel = new LoadedLevel(gameData, nextLevel.resultNow());
+
+                        // The loaded background is handed over to the new screen
+                        nextBackgroundPath = null;
+                        game.setScreen(new GameScreen(game, loadedLevel));
+                    } else {
+                        // Save the game for the next level and load it behind the loading screen
+                        cancelNextLevel();
+                        game.setScreen(new LoadingScreen(game, game.getLevelLoader().loadLevel(gameData)));
+                    }
+                } else {
+                    logger.info("Touched -> not changing to the next level -> max level reached");
+                }
             }
         }
     }
 
-    private void setRoomActive(Room currentRoom, Player player) {
-        if (currentRoom.type.equals("corridor")) {
+    /**
+     * Prepares the next level in the background once the player has seen the portal room,
+     * so entering the portal only swaps the screens. The level is parsed by the level loader
+     * first and its background texture is then loaded by the asset manager.
+     */
+    private void preloadNextLevel() {
+        if (!level.hasPortalRoom || !simulation.portalRoom.visited || level.getLevelNumber() == LAST_LEVEL || nextLevelFailed) {
             return;
         }
 
-        Vector2 playerPosition = player.getPosition();
-        float playerWidth = player.getSprite().getWidth();
-        float playerHeight = player.getSprite().getHeight();
-
-        boolean isInsideLeft = (playerPosition.x + playerWidth) < (currentRoom.bounds.x + currentRoom.bounds.width);
-        boolean isInsideRight = (playerPosition.x) > currentRoom.bounds.x;
-        boolean isInsideTop = playerPosition.y > (currentRoom.bounds.y);
-        boolean isInsideBottom = (playerPosition.y + playerHeight) < (currentRoom.bounds.y + currentRoom.bounds.height);
-
-        if ((isInsideLeft && isInsideRight) && (isInsideTop && isInsideBottom)) {
-            currentRoom.active = true;
+        if (nextLevel == null) {
+            nextLevel = game.getLevelLoader().preloadLevel(level.getLevelNumber() + 1);
+        } else if (nextBackgroundPath == null && nextLevel.isDone()) {
+            if (nextLevel.state() == Future.State.SUCCESS) {
+                nextBackgroundPath = nextLevel.resultNow().getBackgroundPath();
+                game.getAssets().load(nextBackgroundPath, Texture.class);
+            } else {
+                logger.warning("Failed to preload the next level: " + nextLevel.exceptionNow());
+                nextLevelFailed = true;
+            }
         }
 
-        System.out.println("left: " + isInsideLeft + ", right: " + isInsideRight +
-                ", top: " + isInsideTop + ", bottom: " + isInsideBottom);
-
+        // Let the asset manager progress, it loads at most one task per frame here
+        if (nextBackgroundPath != null && !game.getAssets().isLoaded(nextBackgroundPath, Texture.class)) {
+            game.getAssets().update();
+        }
+    }
 
+    /**
+     * @return true if the next level is parsed and its background texture is loaded
+     */
+    private boolean isNextLevelReady() {
+        return nextBackgroundPath != null && game.getAssets().isLoaded(nextBackgroundPath, Texture.class);
     }
 
-    public void handlePortal() {
-        // Check if the player is in the portal room
-        if (currentRoom.type.equals("portal")) {
-            if (Gdx.input.isKeyJustPressed(Input.Keys.E)) {
-                if (this.level.getLevelNumber() != 3) {
-                    logger.info("Touched -> changing to the next level");
-                    // Create new save file for the next level
-                    createNewLevelSave(this.level.getLevelNumber() + 1);
-                    game.setScreen(new GameScreen(this.game, false));
-                } else {
-                    logger.info("Touched -> not changing to the next level -> max level reached");
-                }
-            }
+    /**
+     * Abandons the preloaded next level and unloads its background texture.
+     */
+    private void cancelNextLevel() {
+        if (nextLevel != null) {
+            nextLevel.cancel(false);
+            nextLevel = null;
+        }
+        if (nextBackgroundPath != null) {
+            game.getAssets().unload(nextBackgroundPath);
+            nextBackgroundPath = null;
         }
     }
 
@@ -463,19 +559,26 @@ public class GameScreen implements Screen {
 
 
     private void handleTraderInput() {
+        Room traderRoom = simulation.traderRoom;
         if (Gdx.input.isKeyJustPressed(Input.Keys.E)) {
             traderRoom.trader.tradeMenuOpened = !trader.tradeMenuOpened;
         }
 
         if (traderRoom.trader.tradeMenuOpened) {
+            boolean traded = true;
             if (Gdx.input.isKeyJustPressed(Input.Keys.NUM_1)) {
                 traderRoom.trader.healPlayer(player);
             } else if (Gdx.input.isKeyJustPressed(Input.Keys.NUM_2)) {
                 traderRoom.trader.repairArmor(player);
             } else if (Gdx.input.isKeyJustPressed(Input.Keys.NUM_3)) {
                 traderRoom.trader.upgradeWeapon(player);
+            } else {
+                traded = false;
+            }
+
+            if (traded) {
+                GameLog.log(GameEvent.PLAYER_TRADED, player.getHealth(), player.getArmor(), player.getBalance());
             }
-            logger.info("player: " + player);
         }
     }
     /**
@@ -486,8 +589,10 @@ public class GameScreen implements Screen {
         stage = new Stage(new ScreenViewport());
         Gdx.input.setInputProcessor(stage);
 
-        // DRAGON -> needed to render the attackSquare
+        // Renderer of the shapes queued in the render queue
         shapeRenderer = new ShapeRenderer();
+
+        profilerOverlay = new ProfilerOverlay();
     }
 
     /**
@@ -507,89 +612,75 @@ public class GameScreen implements Screen {
 
     /**
      * Called when this screen is no longer the current screen.
+     * A new game screen is created for every level, so the resources are released right away.
      */
-    public void hide() {}
+    public void hide() {
+        dispose();
+    }
 
     /**
      * Called when this screen is disposed.
      * Disposes of all assets and resources associated with this screen.
      */
     public void dispose() {
+        if (disposed) {
+            return;
+        }
+        disposed = true;
+
         logger.info("Disposing game screen");
-        // Dispose of all the enemies if they are not null
-        if (currentRoom.enemies != null) {
-            currentRoom.enemies.dispose();
+        // Dispose of all the characters in the rooms of the level
+        for (Room room : level.rooms) {
+            room.dispose();
         }
         // Dispose of the player if it is not null
         if (player != null) {
             player.dispose();
         }
 
+        activeEnemies.dispose();
+        trader.dispose();
+        dragon.dispose();
+        CharacterAtlas.release();
+
+        game.getAssets().unload(backgroundTextureName);
+        cancelNextLevel();
+
+        if (shapeRenderer != null) {
+            shapeRenderer.dispose();
+        }
+        if (stage != null) {
+            stage.dispose();
+        }
+        if (profilerOverlay != null) {
+            profilerOverlay.dispose();
+        }
+
         // dispose of the pause screen texts
         for (Text text : gamePausedTexts) {
             text.dispose();
         }
+
+        logger.info("Assets left loaded: " + game.getAssets().getLoadedAssets());
     }
 
     /**
-     * Creates a new save file for the current level.
-     * This method generates a JSON object with the current level number,
-     * writes it to a save file, and returns the JSON node.
+     * Creates the save of the game for the given level with the current state of the player.
+     * The save is written by the level loader.
      *
      * @param levelNumber the level number to save
-     * @return the new save file as a JsonNode
+     * @return the save as a JsonNode
      */
-    private JsonNode createNewLevelSave(int levelNumber) {
-        // Create an instance of ObjectMapper to work with JSON
-        ObjectMapper mapper = new ObjectMapper();
-
+    private JsonNode createLevelSave(int levelNumber) {
         // Create a new JSON object node to store game data
-        ObjectNode gameData = mapper.createObjectNode();
+        ObjectNode gameData = Json.MAPPER.createObjectNode();
 
         // Add the current level number to the game data
         gameData.put("currentLevel", levelNumber);
 
         // Add the player data to the game data
-        if (player == null) {
-            player = Player.getDefaultPlayer();
-        }
         player.savePlayer(gameData);
 
-        try {
-            // Write the JSON object to a file
-            File saveFile = new File("src/main/resources/saves/gameSave.json");
-            mapper.writeValue(saveFile, gameData);
-        } catch (IOException e) {
-            logger.severe("Failed to write save file: " + e.getMessage());
-        }
-
-        // Return the created JSON game data
         return gameData;
     }
-
-    /**
-     * Loads the existing save file containing level data.
-     * This method reads the save file and returns its contents as a JsonNode.
-     *
-     * @return the loaded save file as a JsonNode
-     */
-    private JsonNode loadLevelSave() {
-        // Create an instance of ObjectMapper to work with JSON
-        ObjectMapper mapper = new ObjectMapper();
-        JsonNode gameData = null;
-
-        try {
-            // Read the JSON object from the save file
-            File saveFile = new File("src/main/resources/saves/gameSave.json");
-            gameData = mapper.readTree(saveFile);
-        } catch (IOException e) {
-            logger.severe("Failed to load save file: " + e.getMessage());
-        }
-
-        // Return the loaded JSON game data
-        return gameData;
-    }
-
-
-
 }
@@ -97,7 +97,7 @@ public class GameStateScreen implements Screen {
         // Set up and configure the buttons
         newGameButton = new GameButton(
                 "New Game", skin, middleX, middleY,
-                () -> game.setScreen(new GameScreen(game, true))
+                () -> game.setScreen(new LoadingScreen(game, game.getLevelLoader().loadNewGame()))
         );
         newGameButton.addToStage(stage);
 
@@ -0,0 +1,193 @@
+package cz.cvut.fel.java.screens;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Screen;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
+import com.badlogic.gdx.utils.ScreenUtils;
+import cz.cvut.fel.java.DungeonGame;
+import cz.cvut.fel.java.levels.LoadedLevel;
+import cz.cvut.fel.java.textures.CharacterAtlas;
+import cz.cvut.fel.java.uicomponents.texts.Text;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.logging.Logger;
+
+/**
+ * Screen shown while a level loads. The level is parsed by the {@link cz.cvut.fel.java.levels.LevelLoader}
+ * on its worker, while the textures are loaded by the {@link AssetManager} a few milliseconds per frame.
+ * The game screen is created only when both are done, so the window keeps responding during the load.
+ */
+public class LoadingScreen implements Screen {
+    private static final Logger logger = Logger.getLogger(LoadingScreen.class.getName());
+
+    /**
+     * Time in milliseconds the asset manager may spend loading in one frame.
+     */
+    private static final int ASSET_BUDGET_MILLIS = 12;
+
+    // Size of the progress bar
+    private static final float BAR_WIDTH = 400f;
+    private static final float BAR_HEIGHT = 20f;
+
+    /**
+     * Reference to the game instance
+     */
+    private final DungeonGame game;
+
+    /**
+     * The level being prepared by the level loader.
+     */
+    private final Future<LoadedLevel> pendingLevel;
+
+    /**
+     * The prepared level, null while the level loader is still working.
+     */
+    private LoadedLevel loadedLevel;
+
+    private ShapeRenderer shapeRenderer;
+    private Text loadingText;
+
+    /**
+     * Flag indicating whether the screen was already disposed.
+     */
+    private boolean disposed = false;
+
+    /**
+     * Creates the loading screen of a level.
+     *
+     * @param game the game instance
+     * @param pendingLevel the level being prepared, see {@link cz.cvut.fel.java.levels.LevelLoader}
+     */
+    public LoadingScreen(DungeonGame game, Future<LoadedLevel> pendingLevel) {
+        this.game = game;
+        this.pendingLevel = pendingLevel;
+    }
+
+    /**
+     * Called when this screen becomes the current screen.
+     * Queues the character sprites, so they are decoded while the level is parsed.
+     */
+    @Override
+    public void show() {
+        shapeRenderer = new ShapeRenderer();
+        loadingText = new Text("Loading", Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
+
+        CharacterAtlas.queuePixmaps(game.getAssets());
+    }
+
+    /**
+     * Advances the loading and draws its progress.
+     *
+     * @param delta time since the last frame
+     */
+    @Override
+    public void render(float delta) {
+        AssetManager assets = game.getAssets();
+        boolean assetsLoaded = assets.update(ASSET_BUDGET_MILLIS);
+
+        if (loadedLevel == null && pendingLevel.isDone()) {
+            if (!takeLoadedLevel()) {
+                return;
+            }
+            // Queue the textures of the level, they are known only after the level is parsed
+            assets.load(loadedLevel.getBackgroundPath(), Texture.class);
+            assetsLoaded = false;
+        }
+
+        if (loadedLevel != null && assetsLoaded) {
+            showLevel();
+            return;
+        }
+
+        renderProgress(assets);
+    }
+
+    /**
+     * Takes the level from the level loader. Returns to the main menu if the level failed to load.
+     *
+     * @return true if the level was loaded
+     */
+    private boolean takeLoadedLevel() {
+        try {
+            loadedLevel = pendingLevel.get();
+            return true;
+        } catch (ExecutionException e) {
+            logger.severe("Failed to load level: " + e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.severe("Interrupted while loading level");
+        }
+
+        game.setScreen(new MainMenuScreen(game));
+        return false;
+    }
+
+    /**
+     * Creates the game screen from the loaded level and the loaded textures and switches to it.
+     */
+    private void showLevel() {
+        // Pack the atlas from the decoded sprites, it is held until the game screen takes its own reference
+        CharacterAtlas.acquire(game.getAssets());
+        GameScreen gameScreen = new GameScreen(game, loadedLevel);
+        CharacterAtlas.release();
+
+        game.setScreen(gameScreen);
+    }
+
+    private void renderProgress(AssetManager assets) {
+        // Parsing the level is counted as one half of the work, loading the textures as the other
+        float progress = (loadedLevel != null ? 0.5f : 0f) + assets.getProgress() * 0.5f;
+
+        ScreenUtils.clear(Color.BLACK);
+
+        float x = (Gdx.graphics.getWidth() - BAR_WIDTH) / 2f;
+        float y = Gdx.graphics.getHeight() / 2f;
+
+        shapeRenderer.begin(ShapeRenderer.ShapeType.Filled);
+        shapeRenderer.setColor(Color.RED);
+        shapeRenderer.rect(x, y, BAR_WIDTH * progress, BAR_HEIGHT);
+        shapeRenderer.end();
+
+        shapeRenderer.begin(ShapeRenderer.ShapeType.Line);
+        shapeRenderer.setColor(Color.WHITE);
+        shapeRenderer.rect(x, y, BAR_WIDTH, BAR_HEIGHT);
+        shapeRenderer.end();
+
+        game.getBatch().begin();
+        loadingText.renderText(game.getBatch());
+        game.getBatch().end();
+    }
+
+    @Override
+    public void resize(int width, int height) {}
+
+    @Override
+    public void pause() {}
+
+    @Override
+    public void resume() {}
+
+    /**
+     * Called when this screen is no longer the current screen.
+     * A loading screen is created for every load, so the resources are released right away.
+     */
+    @Override
+    public void hide() {
+        dispose();
+    }
+
+    @Override
+    public void dispose() {
+        if (disposed) {
+            return;
+        }
+        disposed = true;
+
+        shapeRenderer.dispose();
+        loadingText.dispose();
+    }
+}
@@ -9,11 +9,19 @@ import com.badlogic.gdx.scenes.scene2d.ui.Skin;
 import com.badlogic.gdx.utils.ScreenUtils;
 import com.badlogic.gdx.utils.viewport.ScreenViewport;
 import cz.cvut.fel.java.DungeonGame;
+import cz.cvut.fel.java.saves.SaveSlots;
 import cz.cvut.fel.java.uicomponents.buttons.GameButton;
 
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
 /**
  * Represents the main menu screen of the Dungeon game.
  * Displays options to start a new game, load a game or exit.
+ * Loading a game lists the save slots read from the save index in pages, see {@link SaveSlots}.
  */
 public class MainMenuScreen implements Screen {
     /**
@@ -21,6 +29,21 @@ public class MainMenuScreen implements Screen {
      */
     private final DungeonGame game;
 
+    /**
+     * Number of save slots listed on one page
+     */
+    private static final int SLOTS_PER_PAGE = 4;
+
+    /**
+     * Horizontal distance of the previous and next page buttons from the middle of the screen
+     */
+    private static final float PAGE_BUTTON_OFFSET = 210;
+
+    /**
+     * Format of the time of a save shown in the slot list
+     */
+    private static final DateTimeFormatter SAVE_TIME_FORMAT = DateTimeFormatter.ofPattern("d.M. HH:mm");
+
     // UI COMPONENTS
     /**
      * Stage for handling UI components
@@ -43,6 +66,10 @@ public class MainMenuScreen implements Screen {
      * Button to exit the game
      */
     private GameButton exitGameButton;
+    /**
+     * Skin of the UI components
+     */
+    private Skin skin;
 
     /**
      * Constructor that initializes the screen with the given game instance.
@@ -91,22 +118,34 @@ public class MainMenuScreen implements Screen {
         Gdx.input.setInputProcessor(stage);
 
         // Load the UI skin
-        Skin skin = new Skin(Gdx.files.internal("skins/plain-james/plain-james-ui.json"));
+        skin = new Skin(Gdx.files.internal("skins/plain-james/plain-james-ui.json"));
+
+        showMainButtons();
+    }
+
+    /**
+     * Shows the new game, load game and exit buttons.
+     */
+    private void showMainButtons() {
+        stage.clear();
 
         // Get the positions of the middle of the screen
         float middleX = Gdx.graphics.getWidth() / 2f;
         float middleY = Gdx.graphics.getHeight() / 2f;
 
-        // Set up and configure the buttons
+        // Set up and configure the buttons, a new game is saved to a new slot
         newGameButton = new GameButton(
                 "New Game", skin, middleX, middleY + 100,
-                () -> game.setScreen(new GameScreen(game, true))
+                () -> {
+                    game.selectSlot(game.getSaveSlots().newSlotName());
+                    game.setScreen(new LoadingScreen(game, game.getLevelLoader().loadNewGame()));
+                }
         );
         newGameButton.addToStage(stage);
 
         loadGameButton = new GameButton(
                 "Load Game", skin, middleX, middleY,
-                () -> game.setScreen(new GameScreen(game, false))
+                () -> showSlots(0)
         );
         loadGameButton.addToStage(stage);
 
@@ -117,6 +156,60 @@ public class MainMenuScreen implements Screen {
         exitGameButton.addToStage(stage);
     }
 
+    /**
+     * Shows a button for each save slot of the page, the buttons to the previous and the next page
+     * and a button back to the main buttons. The slots are read from the save index, most recent first,
+     * the saves themselves are not read.
+     *
+     * @param page index of the page, it is clamped to the existing pages
+     */
+    private void showSlots(int page) {
+        stage.clear();
+
+        float middleX = Gdx.graphics.getWidth() / 2f;
+        float y = Gdx.graphics.getHeight() / 2f + 150;
+
+        List<SaveSlots.SlotInfo> slots = game.getSaveSlots().list();
+        int pageCount = Math.max(1, (slots.size() + SLOTS_PER_PAGE - 1) / SLOTS_PER_PAGE);
+        int shownPage = Math.min(Math.max(page, 0), pageCount - 1);
+        int from = shownPage * SLOTS_PER_PAGE;
+        int to = Math.min(slots.size(), from + SLOTS_PER_PAGE);
+
+        for (int i = from; i < to; i++) {
+            SaveSlots.SlotInfo slot = slots.get(i);
+            String time = SAVE_TIME_FORMAT.format(
+                    LocalDateTime.ofInstant(Instant.ofEpochMilli(slot.timestamp()), ZoneId.systemDefault()));
+
+            GameButton slotButton = new GameButton(
+                    "Level " + slot.level() + ", " + slot.balance() + " gold, " + time, skin, middleX, y,
+                    () -> {
+                        game.selectSlot(slot.name());
+                        game.setScreen(new LoadingScreen(game, game.getLevelLoader().loadSavedGame()));
+                    }
+            );
+            slotButton.addToStage(stage);
+            y -= 90;
+        }
+
+        // Page buttons are shown only if there is a page in their direction
+        if (pageCount > 1) {
+            if (shownPage > 0) {
+                GameButton previousButton = new GameButton(
+                        "Previous", skin, middleX - PAGE_BUTTON_OFFSET, y, () -> showSlots(shownPage - 1));
+                previousButton.addToStage(stage);
+            }
+            if (shownPage < pageCount - 1) {
+                GameButton nextButton = new GameButton(
+                        "Next", skin, middleX + PAGE_BUTTON_OFFSET, y, () -> showSlots(shownPage + 1));
+                nextButton.addToStage(stage);
+            }
+            y -= 90;
+        }
+
+        GameButton backButton = new GameButton("Back", skin, middleX, y, this::showMainButtons);
+        backButton.addToStage(stage);
+    }
+
     /**
      * Called when the application is resized.
      *
@@ -152,5 +245,6 @@ public class MainMenuScreen implements Screen {
     public void dispose() {
         backgroundTexture.dispose();
         stage.dispose();
+        skin.dispose();
     }
 }
@@ -0,0 +1,256 @@
+package cz.cvut.fel.java.simulation;
+
+import cz.cvut.fel.java.Rooms.Room;
+import cz.cvut.fel.java.Rooms.RoomType;
+import cz.cvut.fel.java.characters.Player;
+import cz.cvut.fel.java.dto.RoomMovementDto;
+import cz.cvut.fel.java.levels.Level;
+import cz.cvut.fel.java.logging.GameEvent;
+import cz.cvut.fel.java.logging.GameLog;
+import cz.cvut.fel.java.profiling.FrameProfiler;
+import cz.cvut.fel.java.profiling.ProfileStage;
+import cz.cvut.fel.java.profiling.RoomSwitchEvent;
+import cz.cvut.fel.java.saves.WorldSnapshot;
+
+/**
+ * Simulation of a level being played: the positions, health and cooldowns of the characters,
+ * the rooms and the combat. It does not need the GL context, so it can be stepped without a window,
+ * the sprites of the characters are only synced with the simulated state when they are rendered.
+ *
+ * <p>The input is passed in as intents: the held movement directions and a requested attack,
+ * which are resolved by the next {@link #step(float) step}.
+ */
+public class Simulation {
+    public final Level level;
+    public final Player player;
+
+    /**
+     * Room the player is in
+     */
+    private Room currentRoom;
+
+    // Rooms with content shown once visited, null if the level has none
+    public final Room portalRoom;
+    public final Room traderRoom;
+
+    // Movement directions held by the player
+    public boolean moveUp;
+    public boolean moveDown;
+    public boolean moveLeft;
+    public boolean moveRight;
+
+    /**
+     * Flag indicating that the player requested an attack since the last step
+     */
+    private boolean attackRequested = false;
+
+    /**
+     * Creates the characters of the level and places the player at the spawn point.
+     *
+     * @param level the loaded level
+     * @param player the player
+     */
+    public Simulation(Level level, Player player) {
+        this.level = level;
+        this.player = player;
+
+        level.createCharacters();
+
+        // Change the player position to the spawn room
+        Room spawnRoom = level.rooms.getSpawnRoom();
+        player.setPosition(
+                spawnRoom.spawnPoint[0],
+                spawnRoom.spawnPoint[1]
+        );
+
+        this.currentRoom = spawnRoom;
+        currentRoom.visited = true;
+        currentRoom.active = false;
+        currentRoom.prepared = false;
+
+        this.portalRoom = level.rooms.getPortalRoom();
+        if (this.portalRoom != null) {
+            level.hasPortalRoom = true;
+        }
+
+        this.traderRoom = level.rooms.getTraderRoom();
+        if (this.traderRoom != null) {
+            level.hasTraderRoom = true;
+        }
+    }
+
+    /**
+     * Continues the level where the snapshot was captured.
+     *
+     * @param world the autosaved world
+     * @return false if the snapshot does not fit the level and nothing was restored
+     */
+    public boolean restore(WorldSnapshot world) {
+        Room savedRoom = world.restore(level, player);
+        if (savedRoom == null) {
+            return false;
+        }
+        this.currentRoom = savedRoom;
+        return true;
+    }
+
+    /**
+     * @return the room the player is in
+     */
+    public Room getCurrentRoom() {
+        return currentRoom;
+    }
+
+    /**
+     * Requests an attack of the player, it is resolved in the next step.
+     */
+    public void requestAttack() {
+        attackRequested = true;
+    }
+
+    /**
+     * Advances the level by one step.
+     *
+     * @param step duration of the step in seconds
+     */
+    public void step(float step) {
+        savePreviousPositions();
+
+        // handle room active state
+        if (!currentRoom.active && currentRoom.prepared) {
+            setRoomActive(currentRoom);
+            if (currentRoom.active) {
+                GameLog.log(GameEvent.ROOM_ACTIVATED, currentRoom.id);
+            }
+        }
+
+        if (currentRoom.type == RoomType.FIGHT) {
+            currentRoom.checkFightRoomStatus();
+        }
+
+        // Handle player movement and attack
+        move(step);
+
+        // update players stamina
+        player.updateStamina(step);
+
+        switch (currentRoom.type) {
+            case FIGHT -> {
+                if (currentRoom.active) {
+                    // Update enemies movement and attacks
+                    currentRoom.enemies.updateEnemies(player, step);
+                }
+            }
+            case BOSS -> {
+                long start = FrameProfiler.start();
+                currentRoom.boss.attack(player, step);
+                FrameProfiler.stop(ProfileStage.DRAGON, start);
+            }
+            default -> {
+                // Other rooms have nothing to simulate
+            }
+        }
+
+        if (traderRoom != null) {
+            traderRoom.trader.update(step);
+        }
+    }
+
+    /**
+     * @return the number of surviving enemies and bosses in all rooms of the level
+     */
+    public int countLiveEnemies() {
+        int count = 0;
+        for (int i = 0; i < level.rooms.size(); i++) {
+            Room room = level.rooms.get(i);
+            if (room.enemies != null) {
+                count += room.enemies.size();
+            }
+            if (room.boss != null && room.boss.isAlive()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Remembers the positions of all simulated characters, so they can be interpolated when rendering.
+     */
+    private void savePreviousPositions() {
+        player.savePreviousPosition();
+
+        if (currentRoom.enemies != null) {
+            currentRoom.enemies.savePreviousPositions();
+        }
+        if (currentRoom.boss != null) {
+            currentRoom.boss.savePreviousPosition();
+        }
+    }
+
+    /**
+     * Moves the player in the held directions and resolves a requested attack.
+     *
+     * @param step duration of the step in seconds
+     */
+    private void move(float step) {
+        if (moveUp) {
+            checkRoomSwitch(player.moveUp(currentRoom, step));
+        }
+        if (moveDown) {
+            checkRoomSwitch(player.moveDown(currentRoom, step));
+        }
+        if (moveLeft) {
+            checkRoomSwitch(player.moveLeft(currentRoom, step));
+        }
+        if (moveRight) {
+            checkRoomSwitch(player.moveRight(currentRoom, step));
+        }
+
+        if (attackRequested) {
+            attackRequested = false;
+            if (currentRoom.enemies != null && (!currentRoom.enemies.isEmpty())) {
+                player.handleAttack(currentRoom.enemies);
+                GameLog.log(GameEvent.PLAYER_ATTACKED, (int) player.getStamina(), currentRoom.enemies.size());
+            }
+        }
+    }
+
+    private void checkRoomSwitch(RoomMovementDto playerMoveDto) {
+        // Check if the player can move to the next room
+        if (playerMoveDto.switchRoom) {
+            RoomSwitchEvent event = new RoomSwitchEvent();
+            if (event.shouldCommit()) {
+                event.levelNumber = level.getLevelNumber();
+                event.fromRoomId = currentRoom.id;
+                event.toRoomId = playerMoveDto.nextRoom.id;
+                event.toRoomType = playerMoveDto.nextRoom.type.name();
+                event.firstVisit = !playerMoveDto.nextRoom.visited;
+                event.commit();
+            }
+
+            currentRoom = playerMoveDto.nextRoom;
+
+            if (!currentRoom.visited) {
+                currentRoom.visited = true;
+            }
+        }
+    }
+
+    private void setRoomActive(Room room) {
+        if (room.type == RoomType.CORRIDOR) {
+            return;
+        }
+
+        float playerX = player.getX();
+        float playerY = player.getY();
+
+        boolean isInsideLeft = (playerX + player.getWidth()) < (room.bounds.x + room.bounds.width);
+        boolean isInsideRight = playerX > room.bounds.x;
+        boolean isInsideTop = playerY > room.bounds.y;
+        boolean isInsideBottom = (playerY + player.getHeight()) < (room.bounds.y + room.bounds.height);
+
+        if ((isInsideLeft && isInsideRight) && (isInsideTop && isInsideBottom)) {
+            room.active = true;
+        }
+    }
+}
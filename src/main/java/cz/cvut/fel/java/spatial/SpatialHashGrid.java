@@ -0,0 +1,104 @@
+package cz.cvut.fel.java.spatial;
+
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.IntArray;
+
+import java.util.Arrays;
+
+/**
+ * Uniform grid of square cells over the bounds of a room, used to find the points
+ * (e.g. enemy positions) near a given position without checking all of them.
+ *
+ * <p>Points are referenced by their index. Each cell keeps a linked list of the points in it,
+ * stored in primitive arrays, so rebuilding the grid and querying it does not allocate.
+ * Points outside the bounds are put into the nearest border cell, so they are still found.
+ */
+public class SpatialHashGrid {
+    private final float originX;
+    private final float originY;
+    private final float cellSize;
+    private final int columns;
+    private final int rows;
+
+    /**
+     * First point of every cell, -1 for an empty cell.
+     */
+    private final int[] cellHead;
+
+    /**
+     * Next point in the same cell for every point, -1 for the last one.
+     */
+    private int[] next = new int[0];
+
+    /**
+     * Creates a grid covering the given bounds.
+     *
+     * @param bounds area covered by the grid
+     * @param cellSize size of the side of one cell
+     */
+    public SpatialHashGrid(Rectangle bounds, float cellSize) {
+        this.originX = bounds.x;
+        this.originY = bounds.y;
+        this.cellSize = cellSize;
+        this.columns = Math.max(1, (int) Math.ceil(bounds.width / cellSize));
+        this.rows = Math.max(1, (int) Math.ceil(bounds.height / cellSize));
+
+        this.cellHead = new int[columns * rows];
+        Arrays.fill(cellHead, -1);
+    }
+
+    /**
+     * Puts all points into their cells, replacing the previous content of the grid.
+     *
+     * @param x x coordinates of the points
+     * @param y y coordinates of the points
+     * @param count number of points
+     */
+    public void rebuild(float[] x, float[] y, int count) {
+        if (next.length < count) {
+            next = new int[Math.max(count, next.length * 2)];
+        }
+
+        Arrays.fill(cellHead, -1);
+        for (int i = 0; i < count; i++) {
+            int cell = row(y[i]) * columns + column(x[i]);
+            next[i] = cellHead[cell];
+            cellHead[cell] = i;
+        }
+    }
+
+    /**
+     * Adds the indices of all points in the cells overlapping the square around the given center.
+     * The result contains every point within the radius, but it may also contain points
+     * slightly outside of it, so the caller should check the exact distance.
+     *
+     * @param centerX x coordinate of the center
+     * @param centerY y coordinate of the center
+     * @param radius half of the side of the square
+     * @param result array the indices are added to
+     */
+    public void query(float centerX, float centerY, float radius, IntArray result) {
+        int fromColumn = column(centerX - radius);
+        int toColumn = column(centerX + radius);
+        int fromRow = row(centerY - radius);
+        int toRow = row(centerY + radius);
+
+        for (int row = fromRow; row <= toRow; row++) {
+            for (int column = fromColumn; column <= toColumn; column++) {
+                for (int i = cellHead[row * columns + column]; i >= 0; i = next[i]) {
+                    result.add(i);
+                }
+            }
+        }
+    }
+
+    private int column(float x) {
+        int column = (int) Math.floor((x - originX) / cellSize);
+        return Math.min(Math.max(column, 0), columns - 1);
+    }
+
+    private int row(float y) {
+        int row = (int) Math.floor((y - originY) / cellSize);
+        return Math.min(Math.max(row, 0), rows - 1);
+    }
+}
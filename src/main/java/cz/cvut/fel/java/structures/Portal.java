@@ -3,6 +3,8 @@ package cz.cvut.fel.java.structures;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
 import com.badlogic.gdx.math.Rectangle;
+import cz.cvut.fel.java.rendering.RenderLayer;
+import cz.cvut.fel.java.rendering.RenderQueue;
 
 public class Portal {
     public float posX;
@@ -16,12 +18,10 @@ public class Portal {
         rect = new Rectangle(x, y, 64, 64); // Assuming a fixed size for the portal
     }
 
-    public void renderPortal(ShapeRenderer shapeRenderer) {
-        shapeRenderer.begin(ShapeRenderer.ShapeType.Filled);
-        shapeRenderer.setColor(Color.GREEN); // Green color for the portal
-        shapeRenderer.rect(rect.x, rect.y, rect.width, rect.height);
-        shapeRenderer.end();
-
+    public void renderPortal(RenderQueue renderQueue) {
+        // Green color for the portal
+        renderQueue.rect(RenderLayer.ENTITIES, ShapeRenderer.ShapeType.Filled, Color.GREEN,
+                rect.x, rect.y, rect.width, rect.height);
     }
 
 }
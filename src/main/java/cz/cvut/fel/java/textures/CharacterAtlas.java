@@ -0,0 +1,320 @@
+package cz.cvut.fel.java.textures;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.PixmapPacker;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.ObjectIntMap;
+import cz.cvut.fel.java.profiling.TextureLoadEvent;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Logger;
+
+import static cz.cvut.fel.java.textureconstants.DragonTexture.*;
+import static cz.cvut.fel.java.textureconstants.GoblinTextures.*;
+import static cz.cvut.fel.java.textureconstants.OrcTextures.*;
+import static cz.cvut.fel.java.textureconstants.PlayerTextures.*;
+import static cz.cvut.fel.java.textureconstants.TraderTextures.*;
+
+/**
+ * Atlas holding all character sprite poses packed into a single texture page.
+ * Characters keep {@link TextureRegion}s of this atlas and switch poses by region index,
+ * so all characters can be drawn by the sprite batch without switching textures.
+ *
+ * <p>Region indices are assigned to the texture paths from {@code cz.cvut.fel.java.textureconstants}
+ * when the class is loaded, so they can be resolved without a GL context. The packed page
+ * itself is created by the first {@link #acquire()} and disposed by the last {@link #release()}.
+ * The atlas must only be acquired and released on the render thread.
+ *
+ * <p>The sprite files can be decoded ahead by an {@link AssetManager} (see {@link #queuePixmaps}),
+ * then packing the page only copies the decoded pixmaps and does not block on reading the files.
+ *
+ * <p>The sizes of the regions ({@link #getWidth(int)}, {@link #getHeight(int)}) are read from the headers
+ * of the sprite files without packing the page, so the simulation can size the characters without a GL context.
+ */
+public class CharacterAtlas {
+    private static final Logger logger = Logger.getLogger(CharacterAtlas.class.getName());
+
+    /**
+     * Size of the packed texture page.
+     */
+    private static final int PAGE_SIZE = 512;
+
+    /**
+     * All character sprite poses. Poses sharing the same file share one region.
+     * The first pose is used in place of poses whose file does not exist.
+     */
+    private static final String[] SPRITE_PATHS = {
+            PLAYER_STAND_DOWN,
+            PLAYER_WALKING_DOWN, PLAYER_WALKING_UP, PLAYER_WALKING_LEFT, PLAYER_WALKING_RIGHT,
+            PLAYER_ATTACK_DOWN, PLAYER_ATTACK_UP, PLAYER_ATTACK_LEFT, PLAYER_ATTACK_RIGHT,
+
+            ORC_STAND_DOWN,
+            ORC_WALKING_DOWN, ORC_WALKING_UP, ORC_WALKING_LEFT, ORC_WALKING_RIGHT,
+            ORC_ATTACK_DOWN, ORC_ATTACK_UP, ORC_ATTACK_LEFT, ORC_ATTACK_RIGHT,
+
+            GOBLIN_STAND_DOWN,
+            GOBLIN_WALKING_DOWN, GOBLIN_WALKING_UP, GOBLIN_WALKING_LEFT, GOBLIN_WALKING_RIGHT,
+            GOBLIN_ATTACK_DOWN, GOBLIN_ATTACK_UP, GOBLIN_ATTACK_LEFT, GOBLIN_ATTACK_RIGHT,
+
+            DRAGON_STAND_DOWN,
+            TRADER_STAND_DOWN
+    };
+
+    /**
+     * Region index of every distinct sprite path.
+     */
+    private static final ObjectIntMap<String> indices = new ObjectIntMap<>();
+
+    /**
+     * Distinct sprite paths ordered by their region index.
+     */
+    private static final List<String> paths = new ArrayList<>();
+
+    static {
+        for (String path : SPRITE_PATHS) {
+            if (!indices.containsKey(path)) {
+                indices.put(path, paths.size());
+                paths.add(path);
+            }
+        }
+    }
+
+    private static PixmapPacker packer;
+    private static TextureAtlas atlas;
+    private static TextureRegion[] regions;
+
+    /**
+     * Number of characters currently using the atlas.
+     */
+    private static int references;
+
+    // Sizes of the sprite files by region index, read on the first request
+    private static int[] widths;
+    private static int[] heights;
+
+    private CharacterAtlas() {}
+
+    /**
+     * Returns the region index of the sprite with the given path.
+     *
+     * @param path path of the sprite, one of the texture constants
+     * @return index of the region of the sprite
+     * @throws IllegalArgumentException if the path is not part of the atlas
+     */
+    public static int indexOf(String path) {
+        int index = indices.get(path, -1);
+        if (index < 0) {
+            throw new IllegalArgumentException("Sprite is not part of the character atlas: " + path);
+        }
+        return index;
+    }
+
+    /**
+     * Returns the region with the given index. The atlas must be acquired.
+     *
+     * @param index index of the region, see {@link #indexOf(String)}
+     * @return region of the packed page
+     */
+    public static TextureRegion getRegion(int index) {
+        return regions[index];
+    }
+
+    /**
+     * Returns the width of the region with the given index. Can be called on any thread, the atlas does not
+     * have to be acquired.
+     *
+     * @param index index of the region, see {@link #indexOf(String)}
+     * @return width of the sprite file in pixels
+     */
+    public static int getWidth(int index) {
+        readSizes();
+        return widths[index];
+    }
+
+    /**
+     * Returns the height of the region with the given index, see {@link #getWidth(int)}.
+     *
+     * @param index index of the region, see {@link #indexOf(String)}
+     * @return height of the sprite file in pixels
+     */
+    public static int getHeight(int index) {
+        readSizes();
+        return heights[index];
+    }
+
+    /**
+     * Increments the number of atlas users and packs the atlas page when it is used for the first time.
+     */
+    public static void acquire() {
+        acquire(null);
+    }
+
+    /**
+     * Queues the sprite files into the asset manager, so they are decoded in the background
+     * before the atlas is packed by {@link #acquire(AssetManager)}. Nothing is queued if the atlas is packed.
+     *
+     * @param assets the asset manager
+     */
+    public static void queuePixmaps(AssetManager assets) {
+        if (references > 0) {
+            return;
+        }
+
+        for (String path : paths) {
+            if (Gdx.files.internal(path).exists() && !assets.contains(path, Pixmap.class)) {
+                assets.load(path, Pixmap.class);
+            }
+        }
+    }
+
+    /**
+     * Increments the number of atlas users and packs the atlas page when it is used for the first time,
+     * using the sprite files already decoded by the asset manager. The decoded files are unloaded.
+     *
+     * @param assets the asset manager the sprite files were queued in, or null to read the files directly
+     */
+    public static void acquire(AssetManager assets) {
+        if (references == 0) {
+            load(assets);
+        } else if (assets != null) {
+            unloadPixmaps(assets);
+        }
+        references++;
+    }
+
+    /**
+     * Decrements the number of atlas users and disposes the atlas page when nobody uses it anymore.
+     */
+    public static void release() {
+        if (references == 0) {
+            logger.warning("Releasing character atlas that is not loaded");
+            return;
+        }
+
+        references--;
+        if (references == 0) {
+            dispose();
+        }
+    }
+
+    /**
+     * Packs all sprite files into one page and creates their regions.
+     *
+     * @param assets asset manager holding decoded sprite files, or null
+     */
+    private static void load(AssetManager assets) {
+        TextureLoadEvent event = new TextureLoadEvent();
+        event.begin();
+
+        packer = new PixmapPacker(PAGE_SIZE, PAGE_SIZE, Pixmap.Format.RGBA8888, 2, false);
+
+        for (String path : paths) {
+            FileHandle file = Gdx.files.internal(path);
+            if (!file.exists()) {
+                logger.warning("Missing sprite " + path + ", using " + paths.get(0) + " instead");
+                continue;
+            }
+
+            if (assets != null && assets.isLoaded(path, Pixmap.class)) {
+                packer.pack(path, assets.get(path, Pixmap.class));
+                assets.unload(path);
+            } else {
+                Pixmap pixmap = new Pixmap(file);
+                packer.pack(path, pixmap);
+                pixmap.dispose();
+            }
+        }
+
+        if (assets != null) {
+            unloadPixmaps(assets);
+        }
+
+        atlas = packer.generateTextureAtlas(Texture.TextureFilter.Nearest, Texture.TextureFilter.Nearest, false);
+
+        regions = new TextureRegion[paths.size()];
+        TextureRegion fallback = atlas.findRegion(paths.get(0));
+        for (int i = 0; i < regions.length; i++) {
+            TextureRegion region = atlas.findRegion(paths.get(i));
+            regions[i] = (region != null) ? region : fallback;
+        }
+
+        if (event.shouldCommit()) {
+            event.path = "character atlas";
+            event.stage = "pack";
+            event.width = PAGE_SIZE;
+            event.height = PAGE_SIZE;
+            event.commit();
+        }
+
+        logger.info("Character atlas packed: " + atlas.getTextures().size + " page(s), " + regions.length + " regions");
+    }
+
+    /**
+     * Reads the sizes of the sprite files from their PNG headers once, so no pixels are decoded.
+     * The files are looked up on the classpath like the internal files of the game, missing files
+     * get the size of the first pose, as their regions.
+     */
+    private static synchronized void readSizes() {
+        if (widths != null) {
+            return;
+        }
+
+        int[] readWidths = new int[paths.size()];
+        int[] readHeights = new int[paths.size()];
+        for (int i = 0; i < paths.size(); i++) {
+            try (InputStream stream = CharacterAtlas.class.getClassLoader().getResourceAsStream(paths.get(i))) {
+                if (stream == null) {
+                    readWidths[i] = readWidths[0];
+                    readHeights[i] = readHeights[0];
+                    continue;
+                }
+
+                // The width and height are the first fields of the IHDR chunk after the 8 byte signature
+                DataInputStream in = new DataInputStream(stream);
+                in.skipNBytes(16);
+                readWidths[i] = in.readInt();
+                readHeights[i] = in.readInt();
+            } catch (IOException e) {
+                logger.warning("Cannot read the size of sprite " + paths.get(i) + ": " + e.getMessage());
+                readWidths[i] = readWidths[0];
+                readHeights[i] = readHeights[0];
+            }
+        }
+
+        heights = readHeights;
+        widths = readWidths;
+    }
+
+    /**
+     * Unloads the sprite files queued in the asset manager that are not needed anymore,
+     * including the ones still being decoded.
+     */
+    private static void unloadPixmaps(AssetManager assets) {
+        for (String path : paths) {
+            if (assets.contains(path, Pixmap.class)) {
+                assets.unload(path);
+            }
+        }
+    }
+
+    /**
+     * Disposes the packed page and all its regions.
+     */
+    private static void dispose() {
+        atlas.dispose();
+        packer.dispose();
+
+        atlas = null;
+        packer = null;
+        regions = null;
+    }
+}
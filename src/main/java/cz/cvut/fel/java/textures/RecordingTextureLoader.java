@@ -0,0 +1,45 @@
+package cz.cvut.fel.java.textures;
+
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.assets.loaders.FileHandleResolver;
+import com.badlogic.gdx.assets.loaders.TextureLoader;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Texture;
+import cz.cvut.fel.java.profiling.TextureLoadEvent;
+
+/**
+ * Texture loader of the asset manager emitting a {@link TextureLoadEvent} for the decoding of the file
+ * on the loader thread and for the upload on the render thread, so the two show up separately in a recording.
+ */
+public class RecordingTextureLoader extends TextureLoader {
+    public RecordingTextureLoader(FileHandleResolver resolver) {
+        super(resolver);
+    }
+
+    @Override
+    public void loadAsync(AssetManager manager, String fileName, FileHandle file, TextureParameter parameter) {
+        TextureLoadEvent event = new TextureLoadEvent();
+        event.begin();
+        super.loadAsync(manager, fileName, file, parameter);
+        if (event.shouldCommit()) {
+            event.path = fileName;
+            event.stage = "decode";
+            event.commit();
+        }
+    }
+
+    @Override
+    public Texture loadSync(AssetManager manager, String fileName, FileHandle file, TextureParameter parameter) {
+        TextureLoadEvent event = new TextureLoadEvent();
+        event.begin();
+        Texture texture = super.loadSync(manager, fileName, file, parameter);
+        if (event.shouldCommit()) {
+            event.path = fileName;
+            event.stage = "upload";
+            event.width = texture.getWidth();
+            event.height = texture.getHeight();
+            event.commit();
+        }
+        return texture;
+    }
+}